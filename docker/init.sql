@@ -0,0 +1,11 @@
+-- Tables the application expects on the main database (db) beyond the anime schema itself.
+CREATE SCHEMA IF NOT EXISTS anime;
+
+-- app.idempotency.store=table
+CREATE TABLE IF NOT EXISTS anime.idempotency_record (
+    idempotency_key VARCHAR(512) PRIMARY KEY,
+    request_hash    VARCHAR(64)  NOT NULL,
+    status          VARCHAR(16)  NOT NULL,
+    response        TEXT,
+    expires_at      TIMESTAMPTZ  NOT NULL
+);
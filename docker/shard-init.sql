@@ -0,0 +1,10 @@
+-- Schema for every shard of app.persistence.engine=sharded.
+-- Only the first shard's sequence is used; it numbers the id blocks handed to each node.
+CREATE SCHEMA IF NOT EXISTS anime;
+
+CREATE TABLE IF NOT EXISTS anime.anime (
+    id   INTEGER PRIMARY KEY,
+    name VARCHAR(255) NOT NULL
+);
+
+CREATE SEQUENCE IF NOT EXISTS anime.anime_id_block;
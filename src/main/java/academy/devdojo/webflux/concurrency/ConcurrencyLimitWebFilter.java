@@ -0,0 +1,61 @@
+package academy.devdojo.webflux.concurrency;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Wraps the handler in a {@link ConcurrencyLimiter} slot and answers {@code 503} when none is
+ * free. It sits in the security chain after authorization, so rejected and unauthenticated
+ * requests never take a slot, and writes and admins can be told apart for the priority lane.
+ */
+@RequiredArgsConstructor
+public class ConcurrencyLimitWebFilter implements WebFilter {
+
+    private static final String ADMIN_AUTHORITY = "ROLE_ADMIN";
+
+    private final ConcurrencyLimiter limiter;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!limiter.appliesTo(exchange.getRequest().getPath().value())) {
+            return chain.filter(exchange);
+        }
+        return isPriority(exchange).flatMap(priority -> {
+            long start = limiter.tryAcquire(priority);
+            if (start < 0) {
+                exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                return exchange.getResponse().setComplete();
+            }
+            return chain.filter(exchange)
+                    .doFinally(signal -> limiter.release(start, signal != SignalType.CANCEL));
+        });
+    }
+
+    private static Mono<Boolean> isPriority(ServerWebExchange exchange) {
+        HttpMethod method = exchange.getRequest().getMethod();
+        if (!(HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method))) {
+            return Mono.just(true);
+        }
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .map(authentication -> {
+                    for (GrantedAuthority authority : authentication.getAuthorities()) {
+                        if (ADMIN_AUTHORITY.equals(authority.getAuthority())) {
+                            return true;
+                        }
+                    }
+                    return false;
+                })
+                .defaultIfEmpty(false);
+    }
+}
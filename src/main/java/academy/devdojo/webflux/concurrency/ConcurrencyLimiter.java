@@ -0,0 +1,113 @@
+package academy.devdojo.webflux.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import academy.devdojo.webflux.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Admits requests while fewer than the adaptive limit are in flight and turns the rest away at
+ * once, instead of letting them queue in Reactor and the connection pool. Priority requests
+ * (writes and admins) may also use a small reserve above the limit.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.concurrency-limit", name = "enabled", havingValue = "true")
+public class ConcurrencyLimiter {
+
+    private final ConcurrencyLimitProperties properties;
+    private final GradientLimit limit;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejected;
+    private final Counter rejectedPriority;
+
+    @Autowired
+    public ConcurrencyLimiter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    ConcurrencyLimiter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.limit = new GradientLimit(properties);
+        this.nanoClock = nanoClock;
+        Gauge.builder("http.server.concurrency.limit", limit, GradientLimit::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("http.server.concurrency.inflight", inFlight, AtomicInteger::get)
+                .description("Requests currently holding a concurrency slot")
+                .register(meterRegistry);
+        this.rejected = rejectedCounter(meterRegistry, "normal");
+        this.rejectedPriority = rejectedCounter(meterRegistry, "priority");
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String lane) {
+        return Counter.builder("http.server.concurrency.rejected")
+                .description("Requests shed because the concurrency limit was reached")
+                .tag("lane", lane)
+                .register(meterRegistry);
+    }
+
+    public boolean appliesTo(String path) {
+        for (String excluded : properties.getExcludedPaths()) {
+            if (isAtOrBelow(path, excluded)) {
+                return false;
+            }
+        }
+        for (String prefix : properties.getPaths()) {
+            if (isAtOrBelow(path, prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isAtOrBelow(String path, String prefix) {
+        return path.equals(prefix) || path.startsWith(prefix + "/");
+    }
+
+    /**
+     * Takes a slot.
+     *
+     * @return the start time to hand back to {@link #release}, or {@code -1} when the request
+     *         has to be shed
+     */
+    public long tryAcquire(boolean priority) {
+        int max = limit.getLimit() + (priority ? properties.getPriorityReserve() : 0);
+        while (true) {
+            int current = inFlight.get();
+            if (current >= max) {
+                (priority ? rejectedPriority : rejected).increment();
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return nanoClock.getAsLong();
+            }
+        }
+    }
+
+    /**
+     * Gives the slot back, feeding the latency to the limit unless the request was cancelled
+     * and so says nothing about how long it would have taken.
+     */
+    public void release(long startNanos, boolean sample) {
+        int current = inFlight.getAndDecrement();
+        if (sample) {
+            limit.onSample(nanoClock.getAsLong() - startNanos, current);
+        }
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+}
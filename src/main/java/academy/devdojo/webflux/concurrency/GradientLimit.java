@@ -0,0 +1,56 @@
+package academy.devdojo.webflux.concurrency;
+
+import academy.devdojo.webflux.config.ConcurrencyLimitProperties;
+
+/**
+ * Gradient limit estimator, in the style of TCP Vegas: it keeps a short-term and a long-term
+ * average of request latency. While they agree, the limit grows by a queue allowance of
+ * {@code sqrt(limit)}. Once the short-term latency rises above the baseline, beyond
+ * {@code rttTolerance}, requests are queueing somewhere (usually for a pool connection) and the
+ * limit shrinks in proportion.
+ */
+final class GradientLimit {
+
+    private final ConcurrencyLimitProperties properties;
+    private final double longFactor;
+    private final double shortFactor;
+
+    private volatile int limit;
+    private double longRtt; // guarded by this
+    private double shortRtt; // guarded by this
+
+    GradientLimit(ConcurrencyLimitProperties properties) {
+        this.properties = properties;
+        this.longFactor = 2.0 / (properties.getLongWindow() + 1);
+        this.shortFactor = 2.0 / (properties.getShortWindow() + 1);
+        this.limit = properties.getInitialLimit();
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    synchronized void onSample(long rttNanos, int inFlight) {
+        if (longRtt == 0) {
+            longRtt = rttNanos;
+            shortRtt = rttNanos;
+            return;
+        }
+        shortRtt += (rttNanos - shortRtt) * shortFactor;
+        longRtt += (rttNanos - longRtt) * longFactor;
+
+        // Let the baseline follow a lasting latency drop instead of waiting out the long window.
+        if (longRtt > shortRtt * 2) {
+            longRtt *= 0.95;
+        }
+        // Too little traffic to say anything about the limit.
+        if (inFlight < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, properties.getRttTolerance() * longRtt / shortRtt));
+        double estimate = limit * gradient + Math.sqrt(limit);
+        double smoothed = limit * (1 - properties.getSmoothing()) + estimate * properties.getSmoothing();
+        limit = (int) Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), Math.round(smoothed)));
+    }
+}
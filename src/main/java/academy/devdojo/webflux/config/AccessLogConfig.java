@@ -0,0 +1,62 @@
+package academy.devdojo.webflux.config;
+
+import java.net.SocketAddress;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import reactor.netty.http.server.ConnectionInformation;
+import reactor.netty.http.server.logging.AccessLog;
+import reactor.netty.http.server.logging.AccessLogArgProvider;
+import reactor.netty.http.server.logging.AccessLogFactory;
+
+/**
+ * Access log written by Reactor Netty once the response completes. The entry is only formatted
+ * and queued on the event loop; {@code logback-spring.xml} routes the logger to an async appender
+ * so the write happens elsewhere.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.access-log", name = "enabled", havingValue = "true")
+public class AccessLogConfig {
+
+    private static final String FORMAT = "{} - {} \"{} {} {}\" {} {} {}ms";
+
+    @Bean
+    public NettyServerCustomizer accessLogCustomizer(AccessLogProperties properties) {
+        List<String> paths = properties.getPaths();
+        return httpServer -> httpServer.accessLog(true, AccessLogFactory.createFilter(
+                args -> matches(paths, args.uri()),
+                args -> AccessLog.create(FORMAT, remoteAddress(args), user(args), args.method(), args.uri(),
+                        args.protocol(), args.status(), args.contentLength(), args.duration())));
+    }
+
+    /**
+     * Matches whole path segments, so {@code /animes} covers {@code /animes/1} but not
+     * {@code /animes-admin}. The query string is ignored.
+     */
+    static boolean matches(List<String> paths, CharSequence uri) {
+        String path = uri.toString();
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        for (String prefix : paths) {
+            if (path.equals(prefix) || path.startsWith(prefix + "/")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static SocketAddress remoteAddress(AccessLogArgProvider args) {
+        ConnectionInformation connection = args.connectionInformation();
+        return connection == null ? null : connection.remoteAddress();
+    }
+
+    private static String user(AccessLogArgProvider args) {
+        return args.user() == null ? "-" : args.user();
+    }
+}
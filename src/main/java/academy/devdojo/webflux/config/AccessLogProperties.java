@@ -0,0 +1,23 @@
+package academy.devdojo.webflux.config;
+
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.access-log")
+public class AccessLogProperties {
+
+    /**
+     * Writes a Reactor Netty access log entry, through the {@code reactor.netty.http.server.AccessLog}
+     * logger, for each request under {@link #paths}. Switched on by the {@code prod} profile.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Path prefixes that are logged.
+     */
+    private List<String> paths = List.of("/animes");
+}
@@ -0,0 +1,33 @@
+package academy.devdojo.webflux.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.anime.changes")
+public class AnimeChangeFeedProperties {
+
+    public enum OverflowPolicy {
+        /**
+         * Drop new events for a subscriber whose buffer is full.
+         */
+        DROP,
+        /**
+         * End the stream of a subscriber whose buffer is full, it can resume with Last-Event-ID.
+         */
+        DISCONNECT
+    }
+
+    /**
+     * Events buffered per subscriber that has not caught up yet.
+     */
+    private int bufferSize = 256;
+
+    /**
+     * Latest events kept for subscribers resuming with Last-Event-ID.
+     */
+    private int replaySize = 1024;
+
+    private OverflowPolicy overflow = OverflowPolicy.DROP;
+}
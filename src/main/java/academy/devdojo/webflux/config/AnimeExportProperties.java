@@ -0,0 +1,24 @@
+package academy.devdojo.webflux.config;
+
+import java.util.zip.Deflater;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.anime.export")
+public class AnimeExportProperties {
+
+    /**
+     * Rows the driver fetches per round trip while scanning the table.
+     */
+    private int fetchSize = 1000;
+
+    /**
+     * Rows encoded into each response buffer.
+     */
+    private int rowsPerChunk = 256;
+
+    private int gzipLevel = Deflater.BEST_SPEED;
+}
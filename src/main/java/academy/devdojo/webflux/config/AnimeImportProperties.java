@@ -0,0 +1,25 @@
+package academy.devdojo.webflux.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.anime.import")
+public class AnimeImportProperties {
+
+    /**
+     * Directory server-side imports may read from. Imports by file name are refused when unset.
+     */
+    private String directory;
+
+    /**
+     * Bytes read from a server-side file per buffer.
+     */
+    private int readBufferSize = 64 * 1024;
+
+    /**
+     * Rows per INSERT batch when the database does not support COPY.
+     */
+    private int fallbackBatchSize = 500;
+}
@@ -0,0 +1,42 @@
+package academy.devdojo.webflux.config;
+
+import java.io.IOException;
+
+import org.springframework.boot.jackson.JsonComponent;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import academy.devdojo.webflux.domain.Anime;
+
+/**
+ * Hand-written serializer for {@link Anime}, replacing Jackson's reflective bean serializer.
+ * Field names are pre-encoded once, and the output matches the bean serializer, including
+ * {@code null} values.
+ */
+@JsonComponent
+public class AnimeJsonSerializer extends StdSerializer<Anime> {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString NAME = new SerializedString("name");
+
+    public AnimeJsonSerializer() {
+        super(Anime.class);
+    }
+
+    @Override
+    public void serialize(Anime anime, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(anime);
+        generator.writeFieldName(ID);
+        if (anime.getId() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(anime.getId());
+        }
+        generator.writeFieldName(NAME);
+        generator.writeString(anime.getName());
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,26 @@
+package academy.devdojo.webflux.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.anime.write-coalescing")
+public class AnimeWriteCoalescerProperties {
+
+    private boolean enabled;
+
+    /**
+     * Flushes as soon as this many inserts are waiting.
+     */
+    private int maxBatchSize = 64;
+
+    /**
+     * Longest time an insert waits for others to join its batch.
+     */
+    private Duration maxDelay = Duration.ofNanos(500_000);
+
+    private int maxConcurrentFlushes = 4;
+}
@@ -0,0 +1,55 @@
+package academy.devdojo.webflux.config;
+
+import java.util.List;
+import java.util.Map;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.AbstractJackson2Encoder;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Jackson encoder for binary formats such as CBOR and Smile. A {@code Flux} is written as one
+ * array for the plain media type, since these formats have no JSON-style array framing to
+ * stream with, and as back-to-back self-delimiting values for the streaming media type.
+ */
+public class BinaryJacksonEncoder extends AbstractJackson2Encoder {
+
+    private static final byte[] NO_SEPARATOR = new byte[0];
+
+    private final MediaType streamingMediaType;
+
+    public BinaryJacksonEncoder(ObjectMapper objectMapper, MediaType mediaType, MediaType streamingMediaType) {
+        super(objectMapper, mediaType, streamingMediaType);
+        this.streamingMediaType = streamingMediaType;
+        setStreamingMediaTypes(List.of(streamingMediaType));
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+            ResolvableType elementType, @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        if (inputStream instanceof Mono || streamingMediaType.isCompatibleWith(mimeType)) {
+            return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+        }
+        return Flux.from(inputStream)
+                .collectList()
+                .map(values -> encodeValue(values, bufferFactory,
+                        ResolvableType.forClassWithGenerics(List.class, elementType), mimeType, hints))
+                .flux();
+    }
+
+    @Override
+    @Nullable
+    protected byte[] getStreamingMediaTypeSeparator(@Nullable MimeType mimeType) {
+        return streamingMediaType.isCompatibleWith(mimeType) ? NO_SEPARATOR : null;
+    }
+}
@@ -0,0 +1,53 @@
+package academy.devdojo.webflux.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Adds CBOR and Smile next to JSON, picked by {@code Accept} and {@code Content-Type}. Each has a
+ * streaming variant for {@code Flux} responses: {@code application/cbor-seq} (RFC 8742) and
+ * {@code application/stream+x-jackson-smile}. The binary mappers come from the same builder
+ * as the JSON one, so they share its modules and settings. {@code application/cbor-seq} is
+ * response-only: Jackson2CborDecoder cannot split a body into items, so requests send
+ * {@code application/cbor}.
+ */
+@Configuration
+public class CodecConfig {
+
+    public static final MediaType APPLICATION_CBOR_SEQ = new MediaType("application", "cbor-seq");
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+    public static final MediaType APPLICATION_STREAM_SMILE = new MediaType("application", "stream+x-jackson-smile");
+
+    @Bean
+    public CodecCustomizer binaryCodecCustomizer(ObjectMapper objectMapper,
+            ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilders) {
+        ObjectMapper cborMapper = objectMapperBuilders.getObject().factory(new CBORFactory()).build();
+        ObjectMapper smileMapper = objectMapperBuilders.getObject().factory(new SmileFactory()).build();
+
+        return configurer -> {
+            // Custom codecs are consulted before the defaults, so JSON is registered again first to
+            // stay the answer to "Accept: */*". The lean encoder takes Anime and error maps, the
+            // regular one everything else.
+            configurer.customCodecs().register(new LeanJsonEncoder(objectMapper));
+            configurer.customCodecs().register(new Jackson2JsonEncoder(objectMapper));
+            configurer.customCodecs().register(
+                    new BinaryJacksonEncoder(smileMapper, APPLICATION_SMILE, APPLICATION_STREAM_SMILE));
+            configurer.customCodecs().register(
+                    new BinaryJacksonEncoder(cborMapper, MediaType.APPLICATION_CBOR, APPLICATION_CBOR_SEQ));
+            configurer.customCodecs().register(
+                    new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper));
+        };
+    }
+}
@@ -0,0 +1,59 @@
+package academy.devdojo.webflux.config;
+
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    /**
+     * Sheds requests above the adaptive limit. Switched on by the {@code prod} profile, so tests
+     * and local runs are never turned away.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Paths whose requests count against the limit, each with everything below it.
+     */
+    private List<String> paths = List.of("/animes");
+
+    /**
+     * Long-lived streams, which would hold a slot for their whole lifetime, are left out.
+     */
+    private List<String> excludedPaths = List.of("/animes/changes", "/animes/export", "/animes/import");
+
+    private int initialLimit = 20;
+
+    private int minLimit = 4;
+
+    private int maxLimit = 200;
+
+    /**
+     * Slots above the current limit that only writes and admin requests may use.
+     */
+    private int priorityReserve = 4;
+
+    /**
+     * How much latency growth over the long-term baseline is tolerated before the limit shrinks.
+     */
+    private double rttTolerance = 1.5;
+
+    /**
+     * Weight of each new limit estimate, between 0 and 1.
+     */
+    private double smoothing = 0.2;
+
+    /**
+     * Number of samples the long-term latency baseline averages over.
+     */
+    private int longWindow = 600;
+
+    /**
+     * Number of samples the short-term latency averages over.
+     */
+    private int shortWindow = 10;
+}
@@ -0,0 +1,36 @@
+package academy.devdojo.webflux.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import academy.devdojo.webflux.diagnostics.BlockingCallRecorder;
+import academy.devdojo.webflux.diagnostics.BlockingCallsEndpoint;
+import academy.devdojo.webflux.diagnostics.CurrentExchange;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Diagnostics mode, off by default and switched on with {@code app.diagnostics.enabled} or the
+ * {@code diagnostics} profile. BlockHound needs {@code -XX:+AllowRedefinitionToAddDeleteMethods}
+ * on the JVM. The Reactor debug agent is separate and opt-in through
+ * {@code spring.reactor.debug-agent.enabled}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.diagnostics", name = "enabled", havingValue = "true")
+public class DiagnosticsConfig {
+
+    @Bean(initMethod = "install")
+    public BlockingCallRecorder blockingCallRecorder(DiagnosticsProperties properties, MeterRegistry meterRegistry) {
+        return new BlockingCallRecorder(properties, meterRegistry);
+    }
+
+    @Bean
+    public BlockingCallsEndpoint blockingCallsEndpoint(BlockingCallRecorder blockingCallRecorder) {
+        return new BlockingCallsEndpoint(blockingCallRecorder);
+    }
+
+    @Bean
+    public CurrentExchange currentExchange() {
+        return new CurrentExchange();
+    }
+}
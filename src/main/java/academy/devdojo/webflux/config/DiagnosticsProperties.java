@@ -0,0 +1,29 @@
+package academy.devdojo.webflux.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.diagnostics")
+public class DiagnosticsProperties {
+
+    /**
+     * Installs BlockHound and reports blocking calls on non-blocking threads. Also switched on by
+     * the {@code diagnostics} profile.
+     */
+    private boolean enabled = false;
+
+    /**
+     * A stack is captured for the first blocking call at each method and endpoint, then for
+     * every n-th one after it.
+     */
+    private int sampleEvery = 100;
+
+    private int stackDepth = 32;
+
+    /**
+     * Number of recent samples kept for the {@code blockingcalls} actuator endpoint.
+     */
+    private int recentSamples = 50;
+}
@@ -0,0 +1,35 @@
+package academy.devdojo.webflux.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * {@code memory} keeps keys in this node only, {@code table} shares them between nodes
+     * through the {@code idempotency_record} table.
+     */
+    private String store = "memory";
+
+    /**
+     * How long a completed response is kept for replay.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * Upper bound on keys held by the in-memory store.
+     */
+    private int maxEntries = 10_000;
+
+    /**
+     * How long a retry waits for the original request, running on another node, to finish.
+     */
+    private Duration waitTimeout = Duration.ofSeconds(10);
+
+    private Duration pollInterval = Duration.ofMillis(100);
+}
@@ -0,0 +1,56 @@
+package academy.devdojo.webflux.config;
+
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.util.StringUtils;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import academy.devdojo.webflux.repository.AnimeRepository;
+import academy.devdojo.webflux.repository.JdbcAnimeRepository;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * The {@code jdbc} persistence engine: a Hikari pool and a scheduler starting one virtual thread
+ * per task, behind an {@link AnimeRepository} that takes over from the Spring Data one.
+ * BlockHound treats virtual threads as threads that may block, so their JDBC calls are not
+ * reported, while a JDBC call that leaks onto an event loop still is.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.persistence", name = "engine", havingValue = "jdbc")
+public class JdbcPersistenceConfig {
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource animeDataSource(PersistenceProperties properties, R2dbcProperties r2dbcProperties) {
+        PersistenceProperties.Jdbc jdbc = properties.getJdbc();
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("anime-jdbc");
+        config.setJdbcUrl(jdbc.getUrl());
+        config.setUsername(StringUtils.hasText(jdbc.getUsername()) ? jdbc.getUsername() : r2dbcProperties.getUsername());
+        config.setPassword(StringUtils.hasText(jdbc.getPassword()) ? jdbc.getPassword() : r2dbcProperties.getPassword());
+        config.setMaximumPoolSize(jdbc.getMaxPoolSize());
+        config.setConnectionTimeout(jdbc.getConnectionTimeout().toMillis());
+        // Start without a database, as the R2DBC pool does, and connect on first use.
+        config.setInitializationFailTimeout(-1);
+        return new HikariDataSource(config);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler jdbcScheduler() {
+        return Schedulers.fromExecutorService(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("jdbc-", 0).factory()), "jdbc");
+    }
+
+    @Bean
+    @Primary
+    public JdbcAnimeRepository jdbcAnimeRepository(HikariDataSource animeDataSource, Scheduler jdbcScheduler) {
+        return new JdbcAnimeRepository(animeDataSource, jdbcScheduler);
+    }
+}
@@ -0,0 +1,190 @@
+package academy.devdojo.webflux.config;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageEncoder;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import academy.devdojo.webflux.domain.Anime;
+import academy.devdojo.webflux.exception.ErrorAttributesBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * JSON encoder for the two shapes the API writes most: {@link Anime} (single or as a
+ * {@code Flux} array) and {@link ErrorAttributesBody error bodies}. Writers are resolved once, and each value is
+ * generated straight into a {@link DataBuffer} from the server's allocator, instead of going
+ * through the {@code byte[]} that {@code Jackson2JsonEncoder} builds and copies for every value.
+ * Any other type is left to the regular Jackson encoder.
+ */
+public class LeanJsonEncoder implements HttpMessageEncoder<Object> {
+
+    private static final List<MimeType> MIME_TYPES =
+            List.of(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+    private static final int ESTIMATED_ANIME_SIZE = 48;
+    private static final int ESTIMATED_MAP_SIZE = 256;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter animeWriter;
+    private final ObjectWriter mapWriter;
+
+    public LeanJsonEncoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.animeWriter = objectMapper.writerFor(Anime.class);
+        this.mapWriter = objectMapper.writerFor(Map.class);
+    }
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, @Nullable MimeType mimeType) {
+        Class<?> type = elementType.toClass();
+        return (type == Anime.class || type == ErrorAttributesBody.class) && supportsMimeType(mimeType);
+    }
+
+    private boolean supportsMimeType(@Nullable MimeType mimeType) {
+        if (mimeType == null) {
+            return true;
+        }
+        if (mimeType.getCharset() != null && !StandardCharsets.UTF_8.equals(mimeType.getCharset())) {
+            return false;
+        }
+        return MIME_TYPES.stream().anyMatch(supported -> supported.isCompatibleWith(mimeType));
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+            ResolvableType elementType, @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        if (inputStream instanceof Mono) {
+            return Mono.from(inputStream)
+                    .map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints))
+                    .flux();
+        }
+        // One generator serves the whole array and is pointed at each element's buffer in turn. The
+        // opening bracket goes out with the first element so that an error before it can still
+        // become a proper error response.
+        return Flux.defer(() -> {
+            DataBufferTarget target = new DataBufferTarget();
+            JsonGenerator generator = createGenerator(target);
+            SequenceWriter sequence = createSequence(writerFor(elementType.toClass()), generator);
+            boolean[] empty = {true};
+            return Flux.from(inputStream)
+                    .map(value -> {
+                        DataBuffer buffer = bufferFactory.allocateBuffer(ESTIMATED_ANIME_SIZE + 1);
+                        target.buffer = buffer;
+                        try {
+                            generator.writeRaw(empty[0] ? '[' : ',');
+                            empty[0] = false;
+                            sequence.write(value);
+                            generator.flush();
+                            return buffer;
+                        } catch (IOException | RuntimeException e) {
+                            DataBufferUtils.release(buffer);
+                            throw new EncodingException("Could not write JSON: " + e.getMessage(), e);
+                        } finally {
+                            target.buffer = null;
+                        }
+                    })
+                    .concatWith(Mono.fromSupplier(() -> empty[0]
+                            ? bufferFactory.allocateBuffer(2).write((byte) '[').write((byte) ']')
+                            : bufferFactory.allocateBuffer(1).write((byte) ']')))
+                    .doFinally(signal -> closeQuietly(sequence, generator));
+        });
+    }
+
+    @Override
+    public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ResolvableType valueType,
+            @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        int capacity = value instanceof Anime ? ESTIMATED_ANIME_SIZE : ESTIMATED_MAP_SIZE;
+        return write(value, bufferFactory.allocateBuffer(capacity));
+    }
+
+    private DataBuffer write(Object value, DataBuffer buffer) {
+        try (OutputStream output = buffer.asOutputStream(); JsonGenerator generator = createGenerator(output)) {
+            writerFor(value.getClass()).writeValue(generator, value);
+            return buffer;
+        } catch (IOException | RuntimeException e) {
+            DataBufferUtils.release(buffer);
+            throw new EncodingException("Could not write JSON: " + e.getMessage(), e);
+        }
+    }
+
+    private ObjectWriter writerFor(Class<?> type) {
+        return type == Anime.class ? animeWriter : mapWriter;
+    }
+
+    private JsonGenerator createGenerator(OutputStream output) {
+        try {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+            generator.setRootValueSeparator(null);
+            return generator;
+        } catch (IOException e) {
+            throw new EncodingException("Could not create JSON generator", e);
+        }
+    }
+
+    private static SequenceWriter createSequence(ObjectWriter writer, JsonGenerator generator) {
+        try {
+            return writer.writeValues(generator);
+        } catch (IOException e) {
+            throw new EncodingException("Could not create JSON sequence writer", e);
+        }
+    }
+
+    private static void closeQuietly(SequenceWriter sequence, JsonGenerator generator) {
+        try (generator; sequence) {
+            // closing is all that's needed
+        } catch (IOException e) {
+            // nothing left to write to
+        }
+    }
+
+    @Override
+    public List<MimeType> getEncodableMimeTypes() {
+        return MIME_TYPES;
+    }
+
+    @Override
+    public List<MediaType> getStreamingMediaTypes() {
+        return List.of();
+    }
+
+    /**
+     * Output for a long-lived generator: forwards to whichever buffer is current and drops
+     * anything written in between, which only happens while closing after an error.
+     */
+    private static final class DataBufferTarget extends OutputStream {
+
+        @Nullable
+        private DataBuffer buffer;
+
+        @Override
+        public void write(int b) {
+            if (buffer != null) {
+                buffer.write((byte) b);
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            if (buffer != null) {
+                buffer.write(bytes, offset, length);
+            }
+        }
+    }
+}
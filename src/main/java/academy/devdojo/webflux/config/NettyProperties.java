@@ -0,0 +1,89 @@
+package academy.devdojo.webflux.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@ConfigurationProperties(prefix = "app.netty")
+public class NettyProperties {
+
+    /**
+     * Runs the HTTP server on the best native transport found: io_uring (with the {@code io-uring}
+     * build profile and a kernel that allows it), then epoll, then kqueue. Falls back to NIO when
+     * none loads. The r2dbc loops ignore it and use the native transport unless the
+     * {@code reactor.netty.native} system property is {@code false}.
+     */
+    private boolean preferNative = true;
+
+    private Loops http = new Loops(1, 0);
+
+    /**
+     * Loops for the r2dbc-postgresql driver, kept apart from the HTTP ones so slow result
+     * decoding does not delay request handling and the other way around.
+     */
+    private Loops r2dbc = new Loops(0, 2);
+
+    private Allocator allocator = new Allocator();
+
+    /**
+     * How often a probe task is queued on every loop to measure how long tasks wait.
+     */
+    private Duration probeInterval = Duration.ofSeconds(1);
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Loops {
+
+        /**
+         * Threads accepting connections. 0 lets accepting share the worker threads.
+         */
+        private int selectThreads;
+
+        /**
+         * Threads doing the I/O. 0 means one per available processor.
+         */
+        private int workerThreads;
+    }
+
+    @Data
+    public static class Allocator {
+
+        /**
+         * Gives the HTTP server its own pooled allocator with the settings below. When off, the
+         * server uses Netty's default allocator, configured through {@code io.netty.allocator.*}
+         * system properties.
+         */
+        private boolean enabled = false;
+
+        private boolean preferDirect = true;
+
+        /**
+         * Direct arenas; 0 means two per available processor, as Netty does.
+         */
+        private int directArenas = 0;
+
+        private int heapArenas = 0;
+
+        private int pageSize = 8192;
+
+        /**
+         * Chunks are {@code pageSize << maxOrder} bytes; 9 gives 4 MiB.
+         */
+        private int maxOrder = 9;
+
+        private int smallCacheSize = 256;
+
+        private int normalCacheSize = 64;
+
+        /**
+         * Thread-local caches for threads other than the event loops as well.
+         */
+        private boolean useCacheForAllThreads = false;
+    }
+}
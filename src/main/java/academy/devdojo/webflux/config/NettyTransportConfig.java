@@ -0,0 +1,91 @@
+package academy.devdojo.webflux.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.r2dbc.ConnectionFactoryOptionsBuilderCustomizer;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import academy.devdojo.webflux.netty.EventLoopMetrics;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.NettyRuntime;
+import io.r2dbc.postgresql.PostgresqlConnectionFactoryProvider;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Separate event-loop groups for the HTTP server and the r2dbc-postgresql driver, on the native
+ * transport when one loads, plus the server's buffer allocator. Reactor Netty picks the transport:
+ * io_uring, then epoll, then kqueue, then NIO.
+ * <p>
+ * The driver only takes the {@link LoopResources} and calls {@code TcpClient.runOn(loopResources)},
+ * so its loops follow Reactor Netty's own default ({@link LoopResources#DEFAULT_NATIVE}, which the
+ * {@code reactor.netty.native} system property turns off), not {@code app.netty.prefer-native}.
+ */
+@Configuration
+public class NettyTransportConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public LoopResources httpLoopResources(NettyProperties properties) {
+        return loopResources("http", properties.getHttp());
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public LoopResources r2dbcLoopResources(NettyProperties properties) {
+        return loopResources("r2dbc", properties.getR2dbc());
+    }
+
+    @Bean
+    public NettyServerCustomizer nettyTransportCustomizer(NettyProperties properties,
+            @Qualifier("httpLoopResources") LoopResources httpLoopResources) {
+        NettyProperties.Allocator allocator = properties.getAllocator();
+        PooledByteBufAllocator pooledAllocator = allocator.isEnabled() ? allocator(allocator) : null;
+        return httpServer -> {
+            httpServer = httpServer.runOn(httpLoopResources, properties.isPreferNative());
+            if (pooledAllocator != null) {
+                httpServer = httpServer.option(ChannelOption.ALLOCATOR, pooledAllocator)
+                        .childOption(ChannelOption.ALLOCATOR, pooledAllocator);
+            }
+            return httpServer;
+        };
+    }
+
+    /**
+     * Picked up by Boot's connection factory and by {@link ReadWriteRoutingConfig}'s pools.
+     */
+    @Bean
+    public ConnectionFactoryOptionsBuilderCustomizer r2dbcLoopResourcesCustomizer(
+            @Qualifier("r2dbcLoopResources") LoopResources r2dbcLoopResources) {
+        return options -> options.option(PostgresqlConnectionFactoryProvider.LOOP_RESOURCES, r2dbcLoopResources);
+    }
+
+    @Bean
+    public EventLoopMetrics eventLoopMetrics(NettyProperties properties,
+            @Qualifier("httpLoopResources") LoopResources httpLoopResources,
+            @Qualifier("r2dbcLoopResources") LoopResources r2dbcLoopResources) {
+        Map<String, EventLoopGroup> groups = new LinkedHashMap<>();
+        groups.put("http", httpLoopResources.onServer(properties.isPreferNative()));
+        groups.put("r2dbc", r2dbcLoopResources.onClient(LoopResources.DEFAULT_NATIVE));
+        return new EventLoopMetrics(groups, properties.getProbeInterval());
+    }
+
+    private static LoopResources loopResources(String prefix, NettyProperties.Loops loops) {
+        int workers = loops.getWorkerThreads() > 0 ? loops.getWorkerThreads() : LoopResources.DEFAULT_IO_WORKER_COUNT;
+        return loops.getSelectThreads() > 0
+                ? LoopResources.create(prefix, loops.getSelectThreads(), workers, true)
+                : LoopResources.create(prefix, workers, true);
+    }
+
+    private static PooledByteBufAllocator allocator(NettyProperties.Allocator allocator) {
+        int defaultArenas = NettyRuntime.availableProcessors() * 2;
+        return new PooledByteBufAllocator(allocator.isPreferDirect(),
+                allocator.getHeapArenas() > 0 ? allocator.getHeapArenas() : defaultArenas,
+                allocator.getDirectArenas() > 0 ? allocator.getDirectArenas() : defaultArenas,
+                allocator.getPageSize(), allocator.getMaxOrder(), allocator.getSmallCacheSize(),
+                allocator.getNormalCacheSize(), allocator.isUseCacheForAllThreads());
+    }
+}
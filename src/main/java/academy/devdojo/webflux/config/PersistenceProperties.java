@@ -0,0 +1,95 @@
+package academy.devdojo.webflux.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.persistence")
+public class PersistenceProperties {
+
+    /**
+     * What backs {@code AnimeRepository}: {@code r2dbc}, the Spring Data repository,
+     * {@code jdbc}, blocking JDBC run on virtual threads, or {@code sharded}, R2DBC spread over
+     * {@code sharding.shards}. Users and idempotency records stay on {@code spring.r2dbc.url}
+     * either way. CSV imports and write coalescing only work with {@code r2dbc}: imports are
+     * refused and coalescing fails startup with the other engines. Exports read through the
+     * engine.
+     */
+    private String engine = "r2dbc";
+
+    private Jdbc jdbc = new Jdbc();
+
+    private Sharding sharding = new Sharding();
+
+    public boolean isR2dbcEngine() {
+        return "r2dbc".equals(engine);
+    }
+
+    @Data
+    public static class Jdbc {
+
+        private String url = "jdbc:postgresql://localhost:5432/webflux?currentSchema=anime";
+
+        /**
+         * Defaults to {@code spring.r2dbc.username}.
+         */
+        private String username;
+
+        /**
+         * Defaults to {@code spring.r2dbc.password}.
+         */
+        private String password;
+
+        /**
+         * Connections in the pool. Virtual threads are cheap, so this rather than the thread
+         * count is what bounds concurrent queries; the rest wait for a connection.
+         */
+        private int maxPoolSize = 20;
+
+        private Duration connectionTimeout = Duration.ofSeconds(2);
+    }
+
+    @Data
+    public static class Sharding {
+
+        public enum Strategy {
+            HASH, RANGE
+        }
+
+        private Strategy strategy = Strategy.HASH;
+
+        /**
+         * One database per shard, in order. Username and password default to the
+         * {@code spring.r2dbc} ones. Changing the list or the strategy does not move rows.
+         */
+        private List<ReadWriteRoutingProperties.Target> shards = new ArrayList<>();
+
+        /**
+         * For {@code range}: the exclusive upper bound of every shard's ids but the last.
+         */
+        private List<Integer> rangeUpperBounds = new ArrayList<>();
+
+        private ReadWriteRoutingProperties.Pool pool = new ReadWriteRoutingProperties.Pool();
+
+        /**
+         * Sequence on the first shard numbering the id blocks handed to each node.
+         */
+        private String idBlockSequence = "anime_id_block";
+
+        /**
+         * Ids a node takes per round trip to the sequence. Unused ids of a block are lost when
+         * the node stops.
+         */
+        private int idBlockSize = 100;
+
+        /**
+         * Rows requested ahead from each shard while merging a listing.
+         */
+        private int prefetch = 256;
+    }
+}
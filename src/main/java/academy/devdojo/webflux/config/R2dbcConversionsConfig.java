@@ -0,0 +1,31 @@
+package academy.devdojo.webflux.config;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.DialectResolver;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import academy.devdojo.webflux.r2dbc.AnimeReadingConverter;
+import academy.devdojo.webflux.r2dbc.AnimeWritingConverter;
+import academy.devdojo.webflux.r2dbc.DevDojoUserReadingConverter;
+import academy.devdojo.webflux.r2dbc.DevDojoUserWritingConverter;
+
+/**
+ * Explicit row mappers for the entities, used by the repositories in place of the reflective
+ * mapping. Replaces Boot's {@code r2dbcCustomConversions} bean, keeping its dialect lookup.
+ */
+@Configuration
+public class R2dbcConversionsConfig {
+
+    public static final List<Object> CONVERTERS = List.of(new AnimeReadingConverter(),
+            new AnimeWritingConverter(), new DevDojoUserReadingConverter(), new DevDojoUserWritingConverter());
+
+    @Bean
+    public R2dbcCustomConversions r2dbcCustomConversions(DatabaseClient databaseClient) {
+        return R2dbcCustomConversions.of(DialectResolver.getDialect(databaseClient.getConnectionFactory()),
+                CONVERTERS);
+    }
+}
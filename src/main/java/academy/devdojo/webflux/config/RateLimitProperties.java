@@ -0,0 +1,80 @@
+package academy.devdojo.webflux.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Off unless switched on, since the limits depend on the deployment's traffic.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Paths whose requests are limited, each with everything below it.
+     */
+    private List<String> paths = List.of("/animes");
+
+    /**
+     * Limits for users that have none of the roles in {@link #roles}.
+     */
+    private Limits defaults = new Limits();
+
+    /**
+     * Limits per role name, without the {@code ROLE_} prefix. A user with several of these roles
+     * gets the limits of the first one listed.
+     */
+    private Map<String, Limits> roles = new LinkedHashMap<>();
+
+    /**
+     * Upper bound on per-user buckets. Users beyond it share one bucket per role and method kind.
+     */
+    private int maxBuckets = 100_000;
+
+    /**
+     * How long a bucket has to sit full before it is evicted.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(5);
+
+    private Duration evictionInterval = Duration.ofMinutes(1);
+
+    @Data
+    public static class Limits {
+
+        /**
+         * GET, HEAD and OPTIONS requests.
+         */
+        private Bandwidth read = new Bandwidth(50, 25);
+
+        /**
+         * Every other method.
+         */
+        private Bandwidth write = new Bandwidth(10, 5);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bandwidth {
+
+        /**
+         * Burst size: requests allowed back to back after a quiet period.
+         */
+        private int capacity;
+
+        /**
+         * Sustained rate.
+         */
+        private double refillPerSecond;
+    }
+}
@@ -0,0 +1,81 @@
+package academy.devdojo.webflux.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.r2dbc.ConnectionFactoryOptionsBuilderCustomizer;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.util.StringUtils;
+
+import academy.devdojo.webflux.r2dbc.ReadOnlyRoutingTransactionManager;
+import academy.devdojo.webflux.r2dbc.ReadWriteRoutingConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+
+/**
+ * Replaces the auto-configured {@link ConnectionFactory} with one that sends writes to
+ * {@code spring.r2dbc.url} and read-only operations to {@code app.r2dbc.routing.replicas}, each
+ * target with its own pool.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.r2dbc.routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties({ ReadWriteRoutingProperties.class, R2dbcProperties.class })
+public class ReadWriteRoutingConfig {
+
+    @Bean
+    public ReadWriteRoutingConnectionFactory connectionFactory(R2dbcProperties r2dbcProperties,
+            ReadWriteRoutingProperties routingProperties,
+            ObjectProvider<ConnectionFactoryOptionsBuilderCustomizer> customizers) {
+        ConnectionFactory primary = pool("primary", r2dbcProperties.getUrl(), r2dbcProperties.getUsername(),
+                r2dbcProperties.getPassword(), routingProperties.getPrimaryPool(), customizers);
+
+        List<ReadWriteRoutingProperties.Target> targets = routingProperties.getReplicas();
+        List<ConnectionFactory> replicas = new ArrayList<>();
+        for (int i = 0; i < targets.size(); i++) {
+            ReadWriteRoutingProperties.Target target = targets.get(i);
+            replicas.add(pool("replica-" + i, target.getUrl(),
+                    StringUtils.hasText(target.getUsername()) ? target.getUsername() : r2dbcProperties.getUsername(),
+                    StringUtils.hasText(target.getPassword()) ? target.getPassword() : r2dbcProperties.getPassword(),
+                    routingProperties.getReplicaPool(), customizers));
+        }
+
+        return new ReadWriteRoutingConnectionFactory(primary, replicas,
+                routingProperties.getReadYourWritesWindow(),
+                routingProperties.getHealthCheckInterval(),
+                routingProperties.getHealthCheckTimeout());
+    }
+
+    @Bean
+    public R2dbcTransactionManager transactionManager(ConnectionFactory connectionFactory) {
+        return new ReadOnlyRoutingTransactionManager(connectionFactory);
+    }
+
+    static ConnectionPool pool(String name, String url, String username, String password,
+            ReadWriteRoutingProperties.Pool pool, ObjectProvider<ConnectionFactoryOptionsBuilderCustomizer> customizers) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (StringUtils.hasText(username)) {
+            options.option(ConnectionFactoryOptions.USER, username);
+        }
+        if (StringUtils.hasText(password)) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        customizers.orderedStream().forEach(customizer -> customizer.customize(options));
+
+        return new ConnectionPool(ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get(options.build()))
+                .name(name)
+                .initialSize(pool.getInitialSize())
+                .maxSize(pool.getMaxSize())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .build());
+    }
+}
@@ -0,0 +1,46 @@
+package academy.devdojo.webflux.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.r2dbc.routing")
+public class ReadWriteRoutingProperties {
+
+    private boolean enabled;
+
+    /**
+     * Read replicas. Username and password default to the {@code spring.r2dbc} ones.
+     */
+    private List<Target> replicas = new ArrayList<>();
+
+    private Pool primaryPool = new Pool();
+    private Pool replicaPool = new Pool();
+
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    private Duration healthCheckTimeout = Duration.ofSeconds(2);
+
+    /**
+     * How long reads stay on the primary after a write. Zero disables read-your-writes.
+     */
+    private Duration readYourWritesWindow = Duration.ZERO;
+
+    @Data
+    public static class Target {
+        private String url;
+        private String username;
+        private String password;
+    }
+
+    @Data
+    public static class Pool {
+        private int initialSize = 1;
+        private int maxSize = 10;
+        private Duration maxIdleTime = Duration.ofMinutes(30);
+    }
+}
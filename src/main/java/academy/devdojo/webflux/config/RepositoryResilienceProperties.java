@@ -0,0 +1,74 @@
+package academy.devdojo.webflux.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.r2dbc.resilience")
+public class RepositoryResilienceProperties {
+
+    /**
+     * When off, repository calls run as they are, with no timeout, retry or hedge.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Timeout for operations missing from {@link #timeouts}. For a Flux it bounds the wait for
+     * each row, so a long listing that keeps streaming is not cut off.
+     */
+    private Duration defaultTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Timeout per operation name, e.g. {@code anime.findById}.
+     */
+    private Map<String, Duration> timeouts = new LinkedHashMap<>();
+
+    private Retry retry = new Retry();
+
+    private Hedge hedge = new Hedge();
+
+    @Data
+    public static class Retry {
+
+        /**
+         * Retries after the first attempt. Reads only; writes are never retried.
+         */
+        private int maxRetries = 2;
+
+        private Duration minBackoff = Duration.ofMillis(20);
+
+        private Duration maxBackoff = Duration.ofMillis(500);
+
+        /**
+         * Share of each backoff that is randomized, between 0 and 1.
+         */
+        private double jitter = 0.5;
+
+        /**
+         * SQLSTATE codes, or class prefixes such as {@code 08}, worth another attempt:
+         * serialization failure, deadlock, connection failures and an administrator shutdown.
+         */
+        private List<String> sqlStates = List.of("40001", "40P01", "08", "57P01");
+    }
+
+    @Data
+    public static class Hedge {
+
+        /**
+         * Sends a second, identical query for hedged reads that have not answered within
+         * {@link #delay}, and keeps whichever answers first.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Should sit around the p95 of the operation, so only the slow tail is hedged.
+         */
+        private Duration delay = Duration.ofMillis(50);
+    }
+}
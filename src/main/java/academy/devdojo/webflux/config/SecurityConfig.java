@@ -1,15 +1,23 @@
 package academy.devdojo.webflux.config;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
 import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
 import org.springframework.security.config.Customizer;
 
+import academy.devdojo.webflux.concurrency.ConcurrencyLimitWebFilter;
+import academy.devdojo.webflux.concurrency.ConcurrencyLimiter;
+import academy.devdojo.webflux.r2dbc.ReadWriteRoutingConnectionFactory;
+import academy.devdojo.webflux.r2dbc.ReadWriteRoutingWebFilter;
+import academy.devdojo.webflux.ratelimit.RateLimitWebFilter;
+import academy.devdojo.webflux.ratelimit.RateLimiter;
 import academy.devdojo.webflux.service.DevDojoUserDetailsService;
 
 @EnableWebFluxSecurity
@@ -17,7 +25,15 @@ import academy.devdojo.webflux.service.DevDojoUserDetailsService;
 public class SecurityConfig {
 
 	@Bean
-	public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+	public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http,
+			ObjectProvider<RateLimiter> rateLimiter, ObjectProvider<ConcurrencyLimiter> concurrencyLimiter,
+			ObjectProvider<ReadWriteRoutingConnectionFactory> readWriteRouting) {
+		readWriteRouting.ifAvailable(routing -> http.addFilterAfter(new ReadWriteRoutingWebFilter(),
+				SecurityWebFiltersOrder.AUTHENTICATION));
+		rateLimiter.ifAvailable(limiter -> http.addFilterAfter(new RateLimitWebFilter(limiter),
+				SecurityWebFiltersOrder.AUTHENTICATION));
+		concurrencyLimiter.ifAvailable(limiter -> http.addFilterAfter(new ConcurrencyLimitWebFilter(limiter),
+				SecurityWebFiltersOrder.AUTHORIZATION));
 		return http
 				.csrf(csrf -> csrf.disable())
 				.authorizeExchange(exchanges -> exchanges
@@ -0,0 +1,65 @@
+package academy.devdojo.webflux.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.r2dbc.ConnectionFactoryOptionsBuilderCustomizer;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.util.StringUtils;
+
+import academy.devdojo.webflux.repository.AnimeRepository;
+import academy.devdojo.webflux.repository.ShardedAnimeRepository;
+import academy.devdojo.webflux.sharding.BlockIdGenerator;
+import academy.devdojo.webflux.sharding.HashShardingStrategy;
+import academy.devdojo.webflux.sharding.RangeShardingStrategy;
+import academy.devdojo.webflux.sharding.ShardingStrategy;
+import io.r2dbc.pool.ConnectionPool;
+
+/**
+ * The {@code sharded} persistence engine: a pool per shard behind an {@link AnimeRepository} that
+ * takes over from the Spring Data one.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.persistence", name = "engine", havingValue = "sharded")
+public class ShardedPersistenceConfig {
+
+    @Bean
+    @Primary
+    public ShardedAnimeRepository shardedAnimeRepository(PersistenceProperties properties,
+            R2dbcProperties r2dbcProperties, ObjectProvider<ConnectionFactoryOptionsBuilderCustomizer> customizers) {
+        PersistenceProperties.Sharding sharding = properties.getSharding();
+        List<ReadWriteRoutingProperties.Target> targets = sharding.getShards();
+        if (targets.isEmpty()) {
+            throw new IllegalStateException("app.persistence.sharding.shards is empty");
+        }
+
+        List<ConnectionPool> pools = new ArrayList<>();
+        for (int i = 0; i < targets.size(); i++) {
+            ReadWriteRoutingProperties.Target target = targets.get(i);
+            pools.add(ReadWriteRoutingConfig.pool("shard-" + i, target.getUrl(),
+                    StringUtils.hasText(target.getUsername()) ? target.getUsername() : r2dbcProperties.getUsername(),
+                    StringUtils.hasText(target.getPassword()) ? target.getPassword() : r2dbcProperties.getPassword(),
+                    sharding.getPool(), customizers));
+        }
+
+        ShardingStrategy strategy = switch (sharding.getStrategy()) {
+            case HASH -> new HashShardingStrategy(pools.size());
+            case RANGE -> new RangeShardingStrategy(sharding.getRangeUpperBounds(), pools.size());
+        };
+
+        DatabaseClient sequenceShard = DatabaseClient.create(pools.get(0));
+        BlockIdGenerator idGenerator = new BlockIdGenerator(
+                () -> sequenceShard.sql("SELECT nextval('" + sharding.getIdBlockSequence() + "')")
+                        .map(row -> row.get(0, Long.class))
+                        .one(),
+                sharding.getIdBlockSize());
+
+        return new ShardedAnimeRepository(pools, strategy, idGenerator, sharding.getPrefetch());
+    }
+}
@@ -0,0 +1,34 @@
+package academy.devdojo.webflux.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.warmup")
+public class WarmupProperties {
+
+    /**
+     * Runs the warmup during startup, before the server starts listening. Switched on by the
+     * {@code prod} profile, so tests and local runs start without it.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Rounds of codec work and requests. Kept below the rate limit burst for a single user.
+     */
+    private int iterations = 10;
+
+    /**
+     * Startup carries on when the warmup has not finished by then.
+     */
+    private Duration timeout = Duration.ofSeconds(10);
+
+    /**
+     * Id requested through {@code GET /animes/{id}}. A missing id is fine, the 404 path gets warmed
+     * instead.
+     */
+    private int animeId = 1;
+}
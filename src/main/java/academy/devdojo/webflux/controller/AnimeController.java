@@ -1,8 +1,15 @@
 package academy.devdojo.webflux.controller;
 
 import java.util.List;
+import java.util.function.Function;
 
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -10,8 +17,16 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+
 import academy.devdojo.webflux.domain.Anime;
+import academy.devdojo.webflux.domain.AnimeChangeEvent;
+import academy.devdojo.webflux.domain.AnimeImportReport;
+import academy.devdojo.webflux.service.AnimeExportFormat;
+import academy.devdojo.webflux.service.AnimeExportService;
+import academy.devdojo.webflux.service.AnimeImportService;
 import academy.devdojo.webflux.service.AnimeService;
+import academy.devdojo.webflux.service.IdempotencyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.enums.SecuritySchemeType;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -25,6 +40,8 @@ import reactor.core.publisher.Mono;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 
 @RestController
 @RequiredArgsConstructor
@@ -32,7 +49,17 @@ import org.springframework.web.bind.annotation.RequestBody;
 @Slf4j
 @SecurityScheme(name = "Basic Authentication", type = SecuritySchemeType.HTTP, scheme = "basic")
 public class AnimeController {
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+    private static final TypeReference<Anime> ANIME = new TypeReference<>() {
+    };
+    private static final TypeReference<List<Anime>> ANIMES = new TypeReference<>() {
+    };
+
     private final AnimeService animeService;
+    private final AnimeExportService animeExportService;
+    private final AnimeImportService animeImportService;
+    private final IdempotencyService idempotencyService;
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
@@ -50,20 +77,84 @@ public class AnimeController {
         return animeService.findById(id);
     }
 
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream anime changes", security = @SecurityRequirement(name = "Basic Authentication"), tags = {
+            "Animes" })
+    public Flux<ServerSentEvent<AnimeChangeEvent>> changes(
+            @RequestHeader(name = LAST_EVENT_ID, required = false) Long lastEventId) {
+        return animeService.changes(lastEventId)
+                .map(event -> ServerSentEvent.builder(event)
+                        .id(Long.toString(event.getId()))
+                        .event(event.getType().name())
+                        .build());
+    }
+
+    @GetMapping(path = "/changes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream anime changes", security = @SecurityRequirement(name = "Basic Authentication"), tags = {
+            "Animes" })
+    public Flux<AnimeChangeEvent> changesAsNdjson(
+            @RequestHeader(name = LAST_EVENT_ID, required = false) Long lastEventId) {
+        return animeService.changes(lastEventId);
+    }
+
+    @GetMapping(path = "/export")
+    @Operation(summary = "Export the whole catalog as CSV or NDJSON", security = @SecurityRequirement(name = "Basic Authentication"), tags = {
+            "Animes" })
+    public Mono<Void> export(@RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip, ServerHttpResponse response) {
+        AnimeExportFormat exportFormat = AnimeExportFormat.from(format);
+        HttpHeaders headers = response.getHeaders();
+        headers.setContentType(exportFormat.getMediaType());
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename("animes." + exportFormat.getFileExtension())
+                .build());
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.writeWith(animeExportService.export(exportFormat, gzip, response.bufferFactory()));
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     @Operation(security = @SecurityRequirement(name = "Basic Authentication"), tags = {
             "Animes" })
-    public Mono<Anime> save(@Valid @RequestBody Anime anime) {
-        return animeService.save(anime);
+    public Mono<Anime> save(@Valid @RequestBody Anime anime,
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "POST /animes", anime, ANIME, animeService.save(anime));
     }
 
     @PostMapping("batch")
     @ResponseStatus(HttpStatus.CREATED)
     @Operation(security = @SecurityRequirement(name = "Basic Authentication"), tags = {
             "Animes" })
-    public Flux<Anime> saveBatch(@RequestBody @Valid List<Anime> animes) {
-        return animeService.saveAll(animes);
+    public Flux<Anime> saveBatch(@RequestBody @Valid List<Anime> animes,
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return idempotencyService
+                .execute(idempotencyKey, "POST /animes/batch", animes, ANIMES,
+                        animeService.saveAll(animes).collectList())
+                .flatMapIterable(Function.identity());
+    }
+
+    @PostMapping(path = "/import", consumes = "text/csv")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Bulk load a CSV body with COPY", security = @SecurityRequirement(name = "Basic Authentication"), tags = {
+            "Animes" })
+    public Mono<AnimeImportReport> importCsv(@RequestBody Flux<DataBuffer> body,
+            @RequestParam(defaultValue = "id,name") List<String> columns,
+            @RequestParam(defaultValue = "true") boolean header,
+            @RequestParam(defaultValue = "false") boolean replace) {
+        return animeImportService.importCsv(body, columns, header, replace);
+    }
+
+    @PostMapping(path = "/import/file")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Bulk load a CSV file from the server import directory with COPY", security = @SecurityRequirement(name = "Basic Authentication"), tags = {
+            "Animes" })
+    public Mono<AnimeImportReport> importFile(@RequestParam String name,
+            @RequestParam(defaultValue = "id,name") List<String> columns,
+            @RequestParam(defaultValue = "true") boolean header,
+            @RequestParam(defaultValue = "false") boolean replace) {
+        return animeImportService.importFile(name, columns, header, replace);
     }
 
     @PutMapping(path = "/{id}")
@@ -0,0 +1,132 @@
+package academy.devdojo.webflux.diagnostics;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import academy.devdojo.webflux.config.DiagnosticsProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingMethod;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Installs BlockHound in reporting mode: a blocking call on a non-blocking thread is counted
+ * under {@code reactor.blocking.calls}, tagged with the blocking method and the endpoint being
+ * served, instead of failing the request. The first call per method and endpoint, and then one
+ * in every {@code sampleEvery}, also has its stack captured. The sample is counted under
+ * {@code reactor.blocking.samples} with the application frame it came from, logged, and kept
+ * for the {@code blockingcalls} actuator endpoint.
+ */
+@Slf4j
+public class BlockingCallRecorder {
+
+    private static final String APPLICATION_PACKAGE = "academy.devdojo.webflux.";
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    private static final ThreadLocal<Boolean> RECORDING = new ThreadLocal<>();
+
+    private final DiagnosticsProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<Site, SiteStats> sites = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedDeque<BlockingCallSample> recent = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger recentCount = new AtomicInteger();
+
+    public BlockingCallRecorder(DiagnosticsProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void install() {
+        BlockHound.install(builder -> builder
+                .allowBlockingCallsInside("java.util.UUID", "randomUUID")
+                .allowBlockingCallsInside("java.io.InputStream", "readNBytes")
+                .allowBlockingCallsInside("java.io.FilterInputStream", "read")
+                .allowBlockingCallsInside("sun.misc.Unsafe", "park")
+                .allowBlockingCallsInside("java.util.concurrent.locks.LockSupport", "park")
+                // Blocking is what virtual threads are for, whatever else marks them non-blocking.
+                .nonBlockingThreadPredicate(current -> current.and(thread -> !thread.isVirtual()))
+                .blockingMethodCallback(this::record));
+        log.info("Diagnostics mode: BlockHound installed, blocking calls are reported instead of failing");
+    }
+
+    void record(BlockingMethod method) {
+        // Whatever runs in here may block too and call back into us.
+        if (RECORDING.get() != null) {
+            return;
+        }
+        RECORDING.set(Boolean.TRUE);
+        try {
+            Site site = new Site(method.getClassName() + "." + method.getName(), CurrentExchange.endpoint());
+            SiteStats stats = sites.computeIfAbsent(site, this::register);
+            stats.calls.increment();
+            if (stats.seen.getAndIncrement() % properties.getSampleEvery() == 0) {
+                sample(site);
+            }
+        } finally {
+            RECORDING.remove();
+        }
+    }
+
+    private SiteStats register(Site site) {
+        return new SiteStats(Counter.builder("reactor.blocking.calls")
+                .description("Blocking calls made on non-blocking threads")
+                .tag("method", site.method())
+                .tag("endpoint", site.endpoint())
+                .register(meterRegistry));
+    }
+
+    private void sample(Site site) {
+        List<String> stack = STACK_WALKER.walk(frames -> frames
+                .dropWhile(frame -> frame.getClassName().equals(BlockingCallRecorder.class.getName())
+                        || frame.getClassName().startsWith("reactor.blockhound."))
+                .limit(properties.getStackDepth())
+                .map(BlockingCallRecorder::format)
+                .toList());
+        String origin = stack.stream()
+                .filter(frame -> frame.startsWith(APPLICATION_PACKAGE))
+                .findFirst()
+                .orElse(stack.isEmpty() ? "unknown" : stack.get(0));
+        meterRegistry.counter("reactor.blocking.samples", "method", site.method(), "endpoint", site.endpoint(),
+                "origin", origin).increment();
+
+        BlockingCallSample sample = new BlockingCallSample(Instant.now(), Thread.currentThread().getName(),
+                site.method(), site.endpoint(), origin, stack);
+        recent.addFirst(sample);
+        if (recentCount.incrementAndGet() > properties.getRecentSamples() && recent.pollLast() != null) {
+            recentCount.decrementAndGet();
+        }
+        // Logging can block, so it happens on a thread that is allowed to.
+        Schedulers.boundedElastic().schedule(() -> log.warn("Blocking call {} on {} while serving {}\n\tat {}",
+                sample.method(), sample.thread(), sample.endpoint(), String.join("\n\tat ", sample.stack())));
+    }
+
+    private static String format(StackWalker.StackFrame frame) {
+        return frame.getClassName() + "." + frame.getMethodName() + "(" + frame.getFileName() + ":"
+                + frame.getLineNumber() + ")";
+    }
+
+    public List<BlockingCallSample> recentSamples() {
+        return new ArrayList<>(recent);
+    }
+
+    public record BlockingCallSample(Instant timestamp, String thread, String method, String endpoint,
+            String origin, List<String> stack) {
+    }
+
+    private record Site(String method, String endpoint) {
+    }
+
+    private record SiteStats(Counter calls, AtomicLong seen) {
+
+        SiteStats(Counter calls) {
+            this(calls, new AtomicLong());
+        }
+    }
+}
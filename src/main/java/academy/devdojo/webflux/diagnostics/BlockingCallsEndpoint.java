@@ -0,0 +1,24 @@
+package academy.devdojo.webflux.diagnostics;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import academy.devdojo.webflux.diagnostics.BlockingCallRecorder.BlockingCallSample;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Lists the most recent blocking call samples, newest first, at {@code /actuator/blockingcalls}.
+ */
+@Endpoint(id = "blockingcalls")
+@RequiredArgsConstructor
+public class BlockingCallsEndpoint {
+
+    private final BlockingCallRecorder recorder;
+
+    @ReadOperation
+    public List<BlockingCallSample> samples() {
+        return recorder.recentSamples();
+    }
+}
@@ -0,0 +1,52 @@
+package academy.devdojo.webflux.diagnostics;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+
+import io.micrometer.context.ContextRegistry;
+import reactor.core.publisher.Hooks;
+import reactor.core.publisher.Mono;
+
+/**
+ * Makes the exchange being served visible to code that has no Reactor context to read it from,
+ * namely the BlockHound callback. The filter puts the exchange in the context and automatic
+ * context propagation restores it into a thread local around every operator. That propagation
+ * is too costly to leave on outside diagnostics mode.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CurrentExchange implements WebFilter {
+
+    static final String CONTEXT_KEY = CurrentExchange.class.getName();
+    static final String UNKNOWN = "none";
+
+    private static final ThreadLocal<ServerWebExchange> CURRENT = new ThreadLocal<>();
+
+    public CurrentExchange() {
+        ContextRegistry.getInstance().registerThreadLocalAccessor(CONTEXT_KEY, CURRENT::get, CURRENT::set,
+                CURRENT::remove);
+        Hooks.enableAutomaticContextPropagation();
+    }
+
+    /**
+     * The method and route pattern of the request on this thread, such as
+     * {@code GET /animes/{id}}.
+     */
+    static String endpoint() {
+        ServerWebExchange exchange = CURRENT.get();
+        if (exchange == null) {
+            return UNKNOWN;
+        }
+        PathPattern pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return exchange.getRequest().getMethod().name() + " " + (pattern != null ? pattern.getPatternString() : "unmapped");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        return chain.filter(exchange).contextWrite(context -> context.put(CONTEXT_KEY, exchange));
+    }
+}
@@ -0,0 +1,20 @@
+package academy.devdojo.webflux.domain;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+@Value
+@AllArgsConstructor
+public class AnimeChangeEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    long id; // increases with every change, sent as the SSE event id
+    Type type;
+    Anime anime;
+    Instant timestamp;
+}
@@ -0,0 +1,19 @@
+package academy.devdojo.webflux.domain;
+
+import java.time.Duration;
+
+import lombok.Value;
+
+@Value
+public class AnimeImportReport {
+
+    long rows;
+    long elapsedMillis;
+    double rowsPerSecond;
+    boolean copy; // false when the INSERT fallback was used
+
+    public static AnimeImportReport of(long rows, Duration elapsed, boolean copy) {
+        double seconds = elapsed.toNanos() / 1_000_000_000.0;
+        return new AnimeImportReport(rows, elapsed.toMillis(), seconds > 0 ? rows / seconds : rows, copy);
+    }
+}
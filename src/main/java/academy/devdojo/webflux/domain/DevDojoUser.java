@@ -1,37 +1,100 @@
 package academy.devdojo.webflux.domain;
 
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.stream.Collectors;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.springframework.data.annotation.AccessType;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.relational.core.mapping.Table;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 @Table("devdojo_user")
 public class DevDojoUser implements UserDetails {
 
+    /**
+     * Interned authority sets, keyed by the raw column value. Users share a handful of role
+     * combinations, so the cache stays small; past {@code MAX_AUTHORITY_SETS} sets are built
+     * without being cached.
+     */
+    private static final Map<String, Set<GrantedAuthority>> AUTHORITY_SETS = new ConcurrentHashMap<>();
+    private static final Map<String, GrantedAuthority> AUTHORITIES = new ConcurrentHashMap<>();
+    private static final int MAX_AUTHORITY_SETS = 1024;
+
     @Id
     private Integer id;
     private String name;
     private String username;
     private String password;
+    // Read through the setter when mapped reflectively, so the parsed set is never out of step.
+    @AccessType(AccessType.Type.PROPERTY)
     private String authorities; // ROLE_USER, ROLER_ADMIN
 
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Set<GrantedAuthority> grantedAuthorities = Set.of();
+
+    public DevDojoUser(Integer id, String name, String username, String password, String authorities) {
+        this.id = id;
+        this.name = name;
+        this.username = username;
+        this.password = password;
+        setAuthorities(authorities);
+    }
+
+    public void setAuthorities(String authorities) {
+        this.authorities = authorities;
+        this.grantedAuthorities = parseAuthorities(authorities);
+    }
+
+    /**
+     * Parsed once when the user is loaded; the security chain asks on every request.
+     */
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Arrays.stream(authorities.split(","))
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
+        return grantedAuthorities;
+    }
+
+    static Set<GrantedAuthority> parseAuthorities(String authorities) {
+        if (authorities == null || authorities.isBlank()) {
+            return Set.of();
+        }
+        Set<GrantedAuthority> cached = AUTHORITY_SETS.get(authorities);
+        if (cached != null) {
+            return cached;
+        }
+        Set<GrantedAuthority> parsed = new LinkedHashSet<>();
+        for (String authority : authorities.split(",")) {
+            String trimmed = authority.trim();
+            if (!trimmed.isEmpty()) {
+                parsed.add(AUTHORITIES.computeIfAbsent(trimmed, SimpleGrantedAuthority::new));
+            }
+        }
+        Set<GrantedAuthority> immutable = Collections.unmodifiableSet(parsed);
+        if (AUTHORITY_SETS.size() >= MAX_AUTHORITY_SETS) {
+            return immutable;
+        }
+        Set<GrantedAuthority> previous = AUTHORITY_SETS.putIfAbsent(authorities, immutable);
+        return previous != null ? previous : immutable;
     }
 
     @Override
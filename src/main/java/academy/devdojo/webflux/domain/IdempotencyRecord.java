@@ -0,0 +1,33 @@
+package academy.devdojo.webflux.domain;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+@Value
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    public enum Status {
+        IN_PROGRESS, COMPLETED
+    }
+
+    String key;
+    String requestHash; // fingerprint of the request body the key was first used with
+    Status status;
+    String response; // JSON body, only set when COMPLETED
+    Instant expiresAt;
+
+    public boolean matches(String requestHash) {
+        return this.requestHash.equals(requestHash);
+    }
+
+    public boolean isCompleted() {
+        return status == Status.COMPLETED;
+    }
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -11,16 +11,24 @@ import org.springframework.web.server.ResponseStatusException;
 @Component
 public class CustomAttributes extends DefaultErrorAttributes {
 
+    static final String DEVELOPER_MESSAGE = "A ResponseStatusException was thrown";
+
     @Override
     public Map<String, Object> getErrorAttributes(ServerRequest request,
             ErrorAttributeOptions options) {
-        Map<String, Object> errorAttributesMap = super.getErrorAttributes(request, options);
+        Map<String, Object> errorAttributesMap = new ErrorAttributesBody(super.getErrorAttributes(request, options));
 
         Throwable throwable = getError(request);
         if (throwable instanceof ResponseStatusException) {
             ResponseStatusException ex = (ResponseStatusException) throwable;
             errorAttributesMap.put("message", ex.getMessage());
-            errorAttributesMap.put("developerMessage", "A ResponseStatusException was thrown");
+            errorAttributesMap.put("developerMessage", DEVELOPER_MESSAGE);
+        } else if (throwable instanceof DomainException) {
+            DomainException ex = (DomainException) throwable;
+            errorAttributesMap.put("status", ex.getStatus().value());
+            errorAttributesMap.put("error", ex.getStatus().getReasonPhrase());
+            errorAttributesMap.put("message", ex.getMessage());
+            errorAttributesMap.put("developerMessage", DEVELOPER_MESSAGE);
         }
 
         return errorAttributesMap;
@@ -0,0 +1,45 @@
+package academy.devdojo.webflux.exception;
+
+import org.springframework.http.HttpStatus;
+
+import lombok.Getter;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+/**
+ * Expected, client-caused failure such as a missing anime. Instances carry no stack trace and
+ * no suppressed exceptions, so the common ones are shared constants and raising them costs
+ * nothing. When a request asks for {@code ?trace=true}, {@link #mono()} raises a fresh copy with
+ * a real stack trace instead (see {@link ErrorTraceWebFilter}).
+ */
+@Getter
+public class DomainException extends RuntimeException {
+
+    public static final DomainException ANIME_NOT_FOUND = new DomainException(HttpStatus.NOT_FOUND, "Anime not found");
+    public static final DomainException EMPTY_NAME = new DomainException(HttpStatus.BAD_REQUEST, "Name cannot be empty");
+
+    private final HttpStatus status;
+    private final String reason;
+
+    public DomainException(HttpStatus status, String reason) {
+        this(status, reason, false);
+    }
+
+    private DomainException(HttpStatus status, String reason, boolean traced) {
+        super(status + " \"" + reason + "\"", null, traced, traced);
+        this.status = status;
+        this.reason = reason;
+    }
+
+    public <T> Mono<T> mono() {
+        return Mono.deferContextual(context -> Mono.error(in(context)));
+    }
+
+    /**
+     * This instance, or a fresh copy with a stack trace when {@code context} carries the trace
+     * flag. For operators that signal errors from a sink rather than through {@link #mono()}.
+     */
+    public DomainException in(ContextView context) {
+        return context.hasKey(ErrorTraceWebFilter.TRACE_CONTEXT_KEY) ? new DomainException(status, reason, true) : this;
+    }
+}
@@ -0,0 +1,83 @@
+package academy.devdojo.webflux.exception;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebExceptionHandler;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Writes {@link DomainException}s without building an error attribute map. The part of the body
+ * that only depends on the exception is encoded once and cached, leaving just timestamp, path
+ * and request id to write per response. The fields match what {@link GlobalExceptionHandler}
+ * produces, which still handles every other error and the {@code ?trace=true} debug path.
+ */
+@Component
+@Order(-3)
+public class DomainExceptionHandler implements WebExceptionHandler {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSxxx");
+    private static final int MAX_CACHED_BODIES = 256;
+
+    private final JsonStringEncoder jsonEncoder = JsonStringEncoder.getInstance();
+    private final Map<DomainException, byte[]> encodedTails = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
+        ServerHttpResponse response = exchange.getResponse();
+        if (!(ex instanceof DomainException domainException) || response.isCommitted()
+                || ErrorTraceWebFilter.isTraceRequested(exchange.getRequest())) {
+            return Mono.error(ex);
+        }
+        response.setStatusCode(domainException.getStatus());
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.fromSupplier(() -> encode(domainException, exchange.getRequest(), response)));
+    }
+
+    private DataBuffer encode(DomainException ex, ServerHttpRequest request, ServerHttpResponse response) {
+        byte[] path = jsonEncoder.quoteAsUTF8(request.getPath().value());
+        byte[] requestId = jsonEncoder.quoteAsUTF8(request.getId());
+        byte[] tail = tailOf(ex);
+        DataBuffer buffer = response.bufferFactory().allocateBuffer(64 + path.length + requestId.length + tail.length);
+        return buffer.write("{\"timestamp\":\"", StandardCharsets.US_ASCII)
+                .write(TIMESTAMP.format(OffsetDateTime.now(ZoneOffset.UTC)), StandardCharsets.US_ASCII)
+                .write("\",\"path\":\"", StandardCharsets.US_ASCII)
+                .write(path)
+                .write("\",\"requestId\":\"", StandardCharsets.US_ASCII)
+                .write(requestId)
+                .write(tail);
+    }
+
+    private byte[] tailOf(DomainException ex) {
+        byte[] tail = encodedTails.get(ex);
+        if (tail == null) {
+            tail = encodeTail(ex);
+            if (encodedTails.size() < MAX_CACHED_BODIES) {
+                encodedTails.putIfAbsent(ex, tail);
+            }
+        }
+        return tail;
+    }
+
+    private byte[] encodeTail(DomainException ex) {
+        String tail = "\",\"status\":" + ex.getStatus().value()
+                + ",\"error\":\"" + new String(jsonEncoder.quoteAsString(ex.getStatus().getReasonPhrase()))
+                + "\",\"message\":\"" + new String(jsonEncoder.quoteAsString(ex.getMessage()))
+                + "\",\"developerMessage\":\"" + CustomAttributes.DEVELOPER_MESSAGE + "\"}";
+        return tail.getBytes(StandardCharsets.UTF_8);
+    }
+}
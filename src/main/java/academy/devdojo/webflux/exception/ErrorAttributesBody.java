@@ -0,0 +1,34 @@
+package academy.devdojo.webflux.exception;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Error attributes as written by {@link GlobalExceptionHandler}. A type of its own so that
+ * {@link academy.devdojo.webflux.config.LeanJsonEncoder} can take error bodies without claiming
+ * every {@link Map} a handler returns. Wraps the attributes instead of copying them.
+ */
+public class ErrorAttributesBody extends AbstractMap<String, Object> {
+
+    private final Map<String, Object> errorAttributes;
+
+    public ErrorAttributesBody(Map<String, Object> errorAttributes) {
+        this.errorAttributes = errorAttributes;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return errorAttributes.entrySet();
+    }
+
+    @Override
+    public Object get(Object key) {
+        return errorAttributes.get(key);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        return errorAttributes.put(key, value);
+    }
+}
@@ -0,0 +1,35 @@
+package academy.devdojo.webflux.exception;
+
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Opt-in debug path for errors: {@code ?trace=true} makes {@link DomainException}s carry a stack
+ * trace and sends them through {@link GlobalExceptionHandler}, which includes it in the body.
+ */
+@Component
+public class ErrorTraceWebFilter implements WebFilter {
+
+    public static final String TRACE_CONTEXT_KEY = ErrorTraceWebFilter.class.getName() + ".TRACE";
+
+    private static final String TRACE_PARAMETER = "trace";
+
+    public static boolean isTraceRequested(ServerHttpRequest request) {
+        // Skip query parsing for the common case of no query string at all.
+        return request.getURI().getRawQuery() != null
+                && "true".equals(request.getQueryParams().getFirst(TRACE_PARAMETER));
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!isTraceRequested(exchange.getRequest())) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange).contextWrite(context -> context.put(TRACE_CONTEXT_KEY, true));
+    }
+}
@@ -42,8 +42,7 @@ public class GlobalExceptionHandler extends AbstractErrorWebExceptionHandler {
     }
 
     private Mono<ServerResponse> formatErrorResponse(ServerRequest request) {
-        String query = request.uri().getQuery();
-        ErrorAttributeOptions erroAttributeOptions = isTraceEnabled(query)
+        ErrorAttributeOptions erroAttributeOptions = ErrorTraceWebFilter.isTraceRequested(request.exchange().getRequest())
                 ? ErrorAttributeOptions.of(Include.STACK_TRACE)
                 : ErrorAttributeOptions.defaults();
 
@@ -53,10 +52,8 @@ public class GlobalExceptionHandler extends AbstractErrorWebExceptionHandler {
 
         return ServerResponse.status(status)
                 .contentType(MediaType.APPLICATION_JSON)
-                .body(BodyInserters.fromValue(errorAttributesMap));
-    }
-
-    private boolean isTraceEnabled(String query) {
-        return query != null && !query.isEmpty() && query.contains("trace=true");
+                .body(BodyInserters.fromValue(errorAttributesMap instanceof ErrorAttributesBody body
+                        ? body
+                        : new ErrorAttributesBody(errorAttributesMap)));
     }
 }
@@ -0,0 +1,55 @@
+package academy.devdojo.webflux.logging;
+
+import java.util.Iterator;
+
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Exports queue depth and dropped events of every {@link NonBlockingAsyncAppender} attached to a
+ * logger: {@code logback.async.dropped} tagged with the appender and a reason, {@code discarded}
+ * for low-level events dropped near capacity and {@code overflow} for events dropped when full.
+ */
+@Component
+public class AsyncAppenderMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext loggerContext)) {
+            return;
+        }
+        for (Logger logger : loggerContext.getLoggerList()) {
+            for (Iterator<Appender<ILoggingEvent>> it = logger.iteratorForAppenders(); it.hasNext();) {
+                if (it.next() instanceof NonBlockingAsyncAppender appender) {
+                    bind(appender, registry);
+                }
+            }
+        }
+    }
+
+    private void bind(NonBlockingAsyncAppender appender, MeterRegistry registry) {
+        FunctionCounter.builder("logback.async.dropped", appender, NonBlockingAsyncAppender::getDiscardedCount)
+                .description("Events dropped by an async appender")
+                .tag("appender", appender.getName())
+                .tag("reason", "discarded")
+                .register(registry);
+        FunctionCounter.builder("logback.async.dropped", appender, NonBlockingAsyncAppender::getOverflowedCount)
+                .description("Events dropped by an async appender")
+                .tag("appender", appender.getName())
+                .tag("reason", "overflow")
+                .register(registry);
+        Gauge.builder("logback.async.queued", appender, NonBlockingAsyncAppender::getQueuedCount)
+                .description("Events waiting to be written by an async appender")
+                .tag("appender", appender.getName())
+                .register(registry);
+    }
+}
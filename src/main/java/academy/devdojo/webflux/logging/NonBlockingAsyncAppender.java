@@ -0,0 +1,246 @@
+package academy.devdojo.webflux.logging;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+/**
+ * Hands events to its appenders on a dedicated thread through a bounded, lock-free queue, so the
+ * logging thread never waits: not on the queue, as it would on the lock of Logback's
+ * {@code AsyncAppender}, and not on the output. The queue is a ring allocated once at start, with
+ * many producers and the worker as its only consumer, so queueing an event allocates nothing.
+ * A producer takes a slot only after {@code size} admitted it, which keeps at most
+ * {@code capacity} events in a ring at least that long; a slot is therefore always free again by
+ * the time the index wraps onto it. Once less than {@code discardingThreshold} slots
+ * are left, events at {@code discardLevel} and below are dropped; when the queue is full, every
+ * event is. Both kinds of drop are counted and exported by {@link AsyncAppenderMetrics}.
+ *
+ * <pre>
+ * &lt;appender name="ASYNC" class="academy.devdojo.webflux.logging.NonBlockingAsyncAppender"&gt;
+ *     &lt;capacity&gt;8192&lt;/capacity&gt;
+ *     &lt;appender-ref ref="JSON"/&gt;
+ * &lt;/appender&gt;
+ * </pre>
+ */
+public class NonBlockingAsyncAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger tail = new AtomicInteger();
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+
+    private int capacity = 8192;
+    private int discardingThreshold = -1;
+    private Level discardLevel = Level.INFO;
+    private boolean includeCallerData = false;
+    private int maxFlushTime = 1000;
+
+    private AtomicReferenceArray<ILoggingEvent> ring;
+    private int mask;
+    private int head;
+
+    private volatile boolean parked;
+    private Thread worker;
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (capacity < 1) {
+            addError("Invalid capacity " + capacity);
+            return;
+        }
+        if (discardingThreshold < 0) {
+            discardingThreshold = capacity / 5;
+        }
+        int length = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        ring = new AtomicReferenceArray<>(length);
+        mask = length - 1;
+        tail.set(0);
+        head = 0;
+        worker = new Thread(this::dispatch, "logback-async-" + getName());
+        worker.setDaemon(true);
+        super.start();
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        LockSupport.unpark(worker);
+        try {
+            worker.join(maxFlushTime);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            addWarn("Stopped with " + size.get() + " events still queued");
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        int queued = size.incrementAndGet();
+        if (queued > capacity) {
+            size.decrementAndGet();
+            overflowed.increment();
+            return;
+        }
+        if (capacity - queued < discardingThreshold && event.getLevel().toInt() <= discardLevel.toInt()) {
+            size.decrementAndGet();
+            discarded.increment();
+            return;
+        }
+        try {
+            // Whatever the event reads lazily from the logging thread has to be captured now.
+            event.prepareForDeferredProcessing();
+            if (includeCallerData) {
+                event.getCallerData();
+            }
+        } catch (RuntimeException e) {
+            size.decrementAndGet();
+            throw e;
+        }
+        ring.set(tail.getAndIncrement() & mask, event);
+        if (parked) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    private void dispatch() {
+        while (isStarted() || size.get() > 0) {
+            int slot = head & mask;
+            ILoggingEvent event = ring.get(slot);
+            if (event == null) {
+                if (!isStarted()) {
+                    // An event counted in size has not reached the ring yet.
+                    Thread.onSpinWait();
+                    continue;
+                }
+                parked = true;
+                if (ring.get(slot) == null) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                parked = false;
+                continue;
+            }
+            ring.set(slot, null);
+            head++;
+            size.decrementAndGet();
+            appenders.appendLoopOnAppenders(event);
+        }
+    }
+
+    public long getDiscardedCount() {
+        return discarded.sum();
+    }
+
+    public long getOverflowedCount() {
+        return overflowed.sum();
+    }
+
+    public int getQueuedCount() {
+        return size.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getDiscardingThreshold() {
+        return discardingThreshold;
+    }
+
+    /**
+     * Free slots below which events at {@code discardLevel} and below are dropped. Defaults to a
+     * fifth of the capacity; 0 keeps every event until the queue is full.
+     */
+    public void setDiscardingThreshold(int discardingThreshold) {
+        this.discardingThreshold = discardingThreshold;
+    }
+
+    public Level getDiscardLevel() {
+        return discardLevel;
+    }
+
+    public void setDiscardLevel(Level discardLevel) {
+        this.discardLevel = discardLevel;
+    }
+
+    public boolean isIncludeCallerData() {
+        return includeCallerData;
+    }
+
+    public void setIncludeCallerData(boolean includeCallerData) {
+        this.includeCallerData = includeCallerData;
+    }
+
+    public int getMaxFlushTime() {
+        return maxFlushTime;
+    }
+
+    /**
+     * Milliseconds {@link #stop()} waits for queued events to be written.
+     */
+    public void setMaxFlushTime(int maxFlushTime) {
+        this.maxFlushTime = maxFlushTime;
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> appender) {
+        appenders.addAppender(appender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
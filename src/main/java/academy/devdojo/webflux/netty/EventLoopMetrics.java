@@ -0,0 +1,104 @@
+package academy.devdojo.webflux.netty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import lombok.extern.slf4j.Slf4j;
+
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+
+/**
+ * Per-loop metrics for named event-loop groups, tagged with the group, the loop's index and its
+ * transport: {@code netty.eventloop.pending.tasks}, the tasks queued on the loop, and
+ * {@code netty.eventloop.task.latency}, how long a probe task queued every {@code probeInterval}
+ * waited before it ran. A loop that is busy or blocked shows up in the latency first.
+ */
+@Slf4j
+public class EventLoopMetrics implements MeterBinder, DisposableBean {
+
+    private final Map<String, EventLoopGroup> groups;
+    private final Duration probeInterval;
+    private final List<Probe> probes = new ArrayList<>();
+    private Disposable probing = Disposables.disposed();
+
+    public EventLoopMetrics(Map<String, EventLoopGroup> groups, Duration probeInterval) {
+        this.groups = groups;
+        this.probeInterval = probeInterval;
+        groups.forEach((name, group) -> {
+            List<EventExecutor> executors = executors(group);
+            log.info("Event loops '{}': {} x {}", name, executors.size(), transport(executors.get(0)));
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        groups.forEach((name, group) -> {
+            List<EventExecutor> executors = executors(group);
+            for (int i = 0; i < executors.size(); i++) {
+                EventExecutor executor = executors.get(i);
+                Tags tags = Tags.of("loop", name, "executor", Integer.toString(i), "transport", transport(executor));
+                if (executor instanceof SingleThreadEventExecutor singleThread) {
+                    Gauge.builder("netty.eventloop.pending.tasks", singleThread, SingleThreadEventExecutor::pendingTasks)
+                            .description("Tasks waiting to run on the event loop")
+                            .tags(tags)
+                            .register(registry);
+                }
+                Timer latency = Timer.builder("netty.eventloop.task.latency")
+                        .description("Time a probe task waited before the event loop ran it")
+                        .tags(tags)
+                        .register(registry);
+                probes.add(new Probe(executor, latency));
+            }
+        });
+        probing.dispose();
+        probing = Flux.interval(probeInterval)
+                .subscribe(tick -> probes.forEach(Probe::send));
+    }
+
+    @Override
+    public void destroy() {
+        probing.dispose();
+    }
+
+    static String transport(EventExecutor executor) {
+        return executor.getClass().getSimpleName().replace("EventLoop", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static List<EventExecutor> executors(EventLoopGroup group) {
+        List<EventExecutor> executors = new ArrayList<>();
+        group.forEach(executors::add);
+        return executors;
+    }
+
+    private record Probe(EventExecutor executor, Timer latency) {
+
+        void send() {
+            if (executor.isShuttingDown()) {
+                return;
+            }
+            long queuedAt = System.nanoTime();
+            try {
+                executor.execute(() -> latency.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS));
+            } catch (RejectedExecutionException e) {
+                // Shut down between the check and the submit.
+            }
+        }
+    }
+}
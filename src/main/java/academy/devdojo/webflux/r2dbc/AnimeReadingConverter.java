@@ -0,0 +1,19 @@
+package academy.devdojo.webflux.r2dbc;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+
+import academy.devdojo.webflux.domain.Anime;
+import io.r2dbc.spi.Row;
+
+/**
+ * Maps an {@code anime} row without going through the reflective entity mapping.
+ */
+@ReadingConverter
+public class AnimeReadingConverter implements Converter<Row, Anime> {
+
+    @Override
+    public Anime convert(Row row) {
+        return new Anime(row.get("id", Integer.class), row.get("name", String.class));
+    }
+}
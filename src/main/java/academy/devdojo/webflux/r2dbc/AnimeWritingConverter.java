@@ -0,0 +1,25 @@
+package academy.devdojo.webflux.r2dbc;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.r2dbc.mapping.OutboundRow;
+import org.springframework.r2dbc.core.Parameter;
+
+import academy.devdojo.webflux.domain.Anime;
+
+/**
+ * Builds the insert and update values of an {@link Anime}. A null id is written as an empty
+ * parameter, which the template drops so the database assigns one.
+ */
+@WritingConverter
+public class AnimeWritingConverter implements Converter<Anime, OutboundRow> {
+
+    @Override
+    @SuppressWarnings("deprecation") // OutboundRow only takes the deprecated Parameter
+    public OutboundRow convert(Anime anime) {
+        OutboundRow row = new OutboundRow();
+        row.put("id", Parameter.fromOrEmpty(anime.getId(), Integer.class));
+        row.put("name", Parameter.fromOrEmpty(anime.getName(), String.class));
+        return row;
+    }
+}
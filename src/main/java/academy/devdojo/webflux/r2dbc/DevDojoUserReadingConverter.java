@@ -0,0 +1,21 @@
+package academy.devdojo.webflux.r2dbc;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+
+import academy.devdojo.webflux.domain.DevDojoUser;
+import io.r2dbc.spi.Row;
+
+/**
+ * Maps a {@code devdojo_user} row; the authorities are parsed here, once per load.
+ */
+@ReadingConverter
+public class DevDojoUserReadingConverter implements Converter<Row, DevDojoUser> {
+
+    @Override
+    public DevDojoUser convert(Row row) {
+        return new DevDojoUser(row.get("id", Integer.class), row.get("name", String.class),
+                row.get("username", String.class), row.get("password", String.class),
+                row.get("authorities", String.class));
+    }
+}
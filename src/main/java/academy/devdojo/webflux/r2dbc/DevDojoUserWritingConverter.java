@@ -0,0 +1,37 @@
+package academy.devdojo.webflux.r2dbc;
+
+import java.util.stream.Collectors;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.r2dbc.mapping.OutboundRow;
+import org.springframework.r2dbc.core.Parameter;
+import org.springframework.security.core.GrantedAuthority;
+
+import academy.devdojo.webflux.domain.DevDojoUser;
+
+@WritingConverter
+public class DevDojoUserWritingConverter implements Converter<DevDojoUser, OutboundRow> {
+
+    @Override
+    @SuppressWarnings("deprecation") // OutboundRow only takes the deprecated Parameter
+    public OutboundRow convert(DevDojoUser user) {
+        OutboundRow row = new OutboundRow();
+        row.put("id", Parameter.fromOrEmpty(user.getId(), Integer.class));
+        row.put("name", Parameter.fromOrEmpty(user.getName(), String.class));
+        row.put("username", Parameter.fromOrEmpty(user.getUsername(), String.class));
+        row.put("password", Parameter.fromOrEmpty(user.getPassword(), String.class));
+        // getAuthorities() is the parsed set; the column holds it comma-separated.
+        row.put("authorities", Parameter.fromOrEmpty(authorities(user), String.class));
+        return row;
+    }
+
+    private static String authorities(DevDojoUser user) {
+        if (user.getAuthorities().isEmpty()) {
+            return null;
+        }
+        return user.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.joining(","));
+    }
+}
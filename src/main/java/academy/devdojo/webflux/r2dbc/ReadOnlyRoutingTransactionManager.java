@@ -0,0 +1,29 @@
+package academy.devdojo.webflux.r2dbc;
+
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+
+import io.r2dbc.spi.ConnectionFactory;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Makes {@code @Transactional(readOnly = true)} pick a replica connection and any other
+ * transaction count as a write: the read-only flag is only known to the transaction manager, so
+ * it is copied into the {@link ReadWriteRouting} context flags while the transaction acquires its
+ * connection.
+ */
+public class ReadOnlyRoutingTransactionManager extends R2dbcTransactionManager {
+
+    public ReadOnlyRoutingTransactionManager(ConnectionFactory connectionFactory) {
+        super(connectionFactory);
+    }
+
+    @Override
+    protected Mono<Void> doBegin(TransactionSynchronizationManager synchronizationManager, Object transaction,
+            TransactionDefinition definition) {
+        Mono<Void> begin = super.doBegin(synchronizationManager, transaction, definition);
+        return begin.contextWrite(definition.isReadOnly() ? ReadWriteRouting.readOnly() : ReadWriteRouting.write());
+    }
+}
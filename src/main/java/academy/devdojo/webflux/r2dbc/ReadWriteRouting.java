@@ -0,0 +1,54 @@
+package academy.devdojo.webflux.r2dbc;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Reactor {@link Context} flags used by {@link ReadWriteRoutingConnectionFactory}: a read-only
+ * operation may go to a replica, anything else goes to the primary. Operations flagged as writes
+ * also keep the reads of the same session on the primary for the read-your-writes window.
+ *
+ * <pre>
+ * animeRepository.findAll().contextWrite(ReadWriteRouting.readOnly());
+ * animeRepository.save(anime).contextWrite(ReadWriteRouting.write());
+ * </pre>
+ */
+public final class ReadWriteRouting {
+
+    private static final String READ_ONLY_KEY = ReadWriteRouting.class.getName() + ".READ_ONLY";
+    private static final String WRITE_KEY = ReadWriteRouting.class.getName() + ".WRITE";
+    private static final String SESSION_KEY = ReadWriteRouting.class.getName() + ".SESSION";
+
+    private ReadWriteRouting() {
+    }
+
+    public static Function<Context, Context> readOnly() {
+        return context -> context.put(READ_ONLY_KEY, Boolean.TRUE);
+    }
+
+    public static Function<Context, Context> write() {
+        return context -> context.put(WRITE_KEY, Boolean.TRUE);
+    }
+
+    /**
+     * Whose writes later reads have to see, e.g. the authenticated user.
+     */
+    public static Function<Context, Context> session(String session) {
+        return context -> context.put(SESSION_KEY, session);
+    }
+
+    public static boolean isReadOnly(ContextView context) {
+        return context.getOrDefault(READ_ONLY_KEY, Boolean.FALSE);
+    }
+
+    public static boolean isWrite(ContextView context) {
+        return context.getOrDefault(WRITE_KEY, Boolean.FALSE);
+    }
+
+    public static Optional<String> sessionOf(ContextView context) {
+        return context.getOrEmpty(SESSION_KEY);
+    }
+}
@@ -0,0 +1,183 @@
+package academy.devdojo.webflux.r2dbc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.r2dbc.connection.lookup.AbstractRoutingConnectionFactory;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ValidationDepth;
+import lombok.extern.slf4j.Slf4j;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Routes connections to the primary or to one of the read replicas.
+ * <p>
+ * Operations flagged with {@link ReadWriteRouting#readOnly()} are spread round-robin over the
+ * healthy replicas. Everything else goes to the primary. Operations flagged with
+ * {@link ReadWriteRouting#write()} start a {@code readYourWritesWindow} for their
+ * {@link ReadWriteRouting#session(String) session}, during which that session's reads are also
+ * kept on the primary, so a client does not read a stale replica right after changing data.
+ * Other sessions keep reading from the replicas. When no replica is healthy, reads fail over to
+ * the primary.
+ */
+@Slf4j
+public class ReadWriteRoutingConnectionFactory extends AbstractRoutingConnectionFactory implements DisposableBean {
+
+    static final String PRIMARY = "primary";
+
+    private final ConnectionFactory primary;
+    private final List<Replica> replicas;
+    private final long readYourWritesWindowNanos;
+    private final Duration healthCheckInterval;
+    private final Duration healthCheckTimeout;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Map<String, Long> lastWriteNanosBySession = new ConcurrentHashMap<>();
+    private Disposable healthMonitor;
+
+    public ReadWriteRoutingConnectionFactory(ConnectionFactory primary, List<ConnectionFactory> replicas,
+            Duration readYourWritesWindow, Duration healthCheckInterval, Duration healthCheckTimeout) {
+        this(primary, replicas, readYourWritesWindow, healthCheckInterval, healthCheckTimeout, System::nanoTime);
+    }
+
+    ReadWriteRoutingConnectionFactory(ConnectionFactory primary, List<ConnectionFactory> replicas,
+            Duration readYourWritesWindow, Duration healthCheckInterval, Duration healthCheckTimeout,
+            LongSupplier nanoClock) {
+        this.primary = primary;
+        this.replicas = new ArrayList<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica("replica-" + i, replicas.get(i)));
+        }
+        this.readYourWritesWindowNanos = readYourWritesWindow.toNanos();
+        this.healthCheckInterval = healthCheckInterval;
+        this.healthCheckTimeout = healthCheckTimeout;
+        this.nanoClock = nanoClock;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        this.replicas.forEach(replica -> targets.put(replica.key, replica.connectionFactory));
+        setTargetConnectionFactories(targets);
+        setDefaultTargetConnectionFactory(primary);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        if (!replicas.isEmpty()) {
+            healthMonitor = Flux.interval(healthCheckInterval)
+                    .concatMap(tick -> checkReplicas().then(Mono.fromRunnable(this::forgetExpiredWrites)))
+                    .subscribe();
+        }
+    }
+
+    @Override
+    protected Mono<Object> determineCurrentLookupKey() {
+        return Mono.deferContextual(context -> {
+            long now = nanoClock.getAsLong();
+            Optional<String> session = ReadWriteRouting.sessionOf(context);
+            if (!ReadWriteRouting.isReadOnly(context)) {
+                if (ReadWriteRouting.isWrite(context) && session.isPresent() && readYourWritesWindowNanos > 0
+                        && !replicas.isEmpty()) {
+                    lastWriteNanosBySession.put(session.get(), now);
+                }
+                return Mono.just(PRIMARY);
+            }
+            if (session.isPresent() && isWithinReadYourWritesWindow(session.get(), now)) {
+                return Mono.just(PRIMARY);
+            }
+            return Mono.just(nextHealthyReplica());
+        });
+    }
+
+    private boolean isWithinReadYourWritesWindow(String session, long now) {
+        Long lastWrite = lastWriteNanosBySession.get(session);
+        return lastWrite != null && now - lastWrite < readYourWritesWindowNanos;
+    }
+
+    /**
+     * Drops sessions whose window has passed. Runs with the health checks rather than on every
+     * write.
+     */
+    void forgetExpiredWrites() {
+        long now = nanoClock.getAsLong();
+        lastWriteNanosBySession.values().removeIf(lastWrite -> now - lastWrite >= readYourWritesWindowNanos);
+    }
+
+    int sessionsInReadYourWritesWindow() {
+        return lastWriteNanosBySession.size();
+    }
+
+    private Object nextHealthyReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica.key;
+            }
+        }
+        return PRIMARY;
+    }
+
+    Mono<Void> checkReplicas() {
+        return Flux.fromIterable(replicas)
+                .flatMap(replica -> validate(replica.connectionFactory)
+                        .doOnNext(healthy -> updateHealth(replica, healthy)))
+                .then();
+    }
+
+    private Mono<Boolean> validate(ConnectionFactory connectionFactory) {
+        return Mono.usingWhen(connectionFactory.create(),
+                connection -> Mono.from(connection.validate(ValidationDepth.REMOTE)),
+                Connection::close)
+                .timeout(healthCheckTimeout)
+                .onErrorReturn(false)
+                .defaultIfEmpty(false);
+    }
+
+    private void updateHealth(Replica replica, boolean healthy) {
+        if (replica.healthy != healthy) {
+            log.warn("Read replica '{}' is now {}", replica.key, healthy ? "healthy" : "unhealthy, reads fail over");
+        }
+        replica.healthy = healthy;
+    }
+
+    @Override
+    public void destroy() {
+        if (healthMonitor != null) {
+            healthMonitor.dispose();
+        }
+        replicas.forEach(replica -> dispose(replica.connectionFactory));
+        dispose(primary);
+    }
+
+    private void dispose(ConnectionFactory connectionFactory) {
+        if (connectionFactory instanceof Disposable disposable) {
+            disposable.dispose();
+        }
+    }
+
+    private static final class Replica {
+        private final String key;
+        private final ConnectionFactory connectionFactory;
+        private volatile boolean healthy = true;
+
+        private Replica(String key, ConnectionFactory connectionFactory) {
+            this.key = key;
+            this.connectionFactory = connectionFactory;
+        }
+    }
+}
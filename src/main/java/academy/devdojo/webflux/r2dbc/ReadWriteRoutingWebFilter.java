@@ -0,0 +1,31 @@
+package academy.devdojo.webflux.r2dbc;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Uses the authenticated user as the {@link ReadWriteRouting#session(String) routing session}, so
+ * a user's reads follow that user's writes to the primary and nobody else's do. Like the rate
+ * limit filter, it sits in the security filter chain right after authentication.
+ */
+public class ReadWriteRoutingWebFilter implements WebFilter {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(authentication -> authentication.isAuthenticated()
+                        && !(authentication instanceof AnonymousAuthenticationToken))
+                .map(authentication -> authentication.getName())
+                .defaultIfEmpty("")
+                .flatMap(session -> session.isEmpty()
+                        ? chain.filter(exchange)
+                        : chain.filter(exchange).contextWrite(ReadWriteRouting.session(session)));
+    }
+}
@@ -0,0 +1,170 @@
+package academy.devdojo.webflux.r2dbc;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+
+import academy.devdojo.webflux.config.RepositoryResilienceProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.R2dbcException;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import reactor.util.retry.RetryBackoffSpec;
+
+/**
+ * Timeouts, retries and hedging for repository calls, applied with {@code transform}:
+ *
+ * <pre>
+ * animeRepository.findById(id).transform(resilience.hedgedRead("anime.findById"));
+ * </pre>
+ *
+ * Every operation gets its timeout. Reads are retried with jittered exponential backoff when the
+ * driver reports one of the configured SQLSTATEs; a Flux only until it has emitted its first row,
+ * so a retry never repeats rows. Writes are never retried, since a write that timed out or lost
+ * its connection may still have been applied.
+ */
+@Component
+public class RepositoryResilience {
+
+    private final RepositoryResilienceProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+
+    public RepositoryResilience(RepositoryResilienceProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> Function<Mono<T>, Mono<T>> read(String name) {
+        if (!properties.isEnabled()) {
+            return Function.identity();
+        }
+        Operation operation = operation(name);
+        return mono -> timeout(mono, operation).retryWhen(retry(operation));
+    }
+
+    /**
+     * Like {@link #read(String)}, and when hedging is on, subscribes to {@code mono} a second time
+     * if the first subscription has not signalled within the hedge delay. The source has to be
+     * cold, as repository queries are, so that each subscription runs its own query.
+     */
+    public <T> Function<Mono<T>, Mono<T>> hedgedRead(String name) {
+        if (!properties.isEnabled() || !properties.getHedge().isEnabled()) {
+            return read(name);
+        }
+        Operation operation = operation(name);
+        Duration delay = properties.getHedge().getDelay();
+        return mono -> {
+            // The loser is cancelled, so a hedge that completes is one that answered first.
+            Mono<T> hedge = Mono.delay(delay)
+                    .doOnNext(tick -> operation.hedges.increment())
+                    .then(mono)
+                    .doOnSuccess(value -> operation.hedgeWins.increment());
+            return timeout(Mono.firstWithSignal(mono, hedge), operation).retryWhen(retry(operation));
+        };
+    }
+
+    public <T> Function<Flux<T>, Flux<T>> readMany(String name) {
+        if (!properties.isEnabled()) {
+            return Function.identity();
+        }
+        Operation operation = operation(name);
+        return flux -> Flux.defer(() -> {
+            AtomicBoolean emitted = new AtomicBoolean();
+            return timeout(flux, operation)
+                    .doOnNext(value -> emitted.lazySet(true))
+                    .retryWhen(retry(operation).filter(e -> !emitted.get() && isRetryable(e)));
+        });
+    }
+
+    public <T> Function<Mono<T>, Mono<T>> write(String name) {
+        if (!properties.isEnabled()) {
+            return Function.identity();
+        }
+        Operation operation = operation(name);
+        return mono -> timeout(mono, operation);
+    }
+
+    public <T> Function<Flux<T>, Flux<T>> writeMany(String name) {
+        if (!properties.isEnabled()) {
+            return Function.identity();
+        }
+        Operation operation = operation(name);
+        return flux -> timeout(flux, operation);
+    }
+
+    boolean isRetryable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            String sqlState = cause instanceof R2dbcException r2dbcException ? r2dbcException.getSqlState()
+                    : cause instanceof SQLException sqlException ? sqlException.getSQLState()
+                    : null;
+            if (sqlState != null) {
+                return properties.getRetry().getSqlStates().stream().anyMatch(sqlState::startsWith);
+            }
+        }
+        return false;
+    }
+
+    private <T> Mono<T> timeout(Mono<T> mono, Operation operation) {
+        return mono.timeout(operation.timeout)
+                .doOnError(TimeoutException.class, e -> operation.timeouts.increment());
+    }
+
+    private <T> Flux<T> timeout(Flux<T> flux, Operation operation) {
+        return flux.timeout(operation.timeout)
+                .doOnError(TimeoutException.class, e -> operation.timeouts.increment());
+    }
+
+    private RetryBackoffSpec retry(Operation operation) {
+        RepositoryResilienceProperties.Retry retry = properties.getRetry();
+        return Retry.backoff(retry.getMaxRetries(), retry.getMinBackoff())
+                .maxBackoff(retry.getMaxBackoff())
+                .jitter(retry.getJitter())
+                .filter(this::isRetryable)
+                .doBeforeRetry(signal -> operation.retries.increment())
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    private Operation operation(String name) {
+        return operations.computeIfAbsent(name, key -> new Operation(key,
+                properties.getTimeouts().getOrDefault(key, properties.getDefaultTimeout()), meterRegistry));
+    }
+
+    private static final class Operation {
+
+        private final Duration timeout;
+        private final Counter retries;
+        private final Counter timeouts;
+        private final Counter hedges;
+        private final Counter hedgeWins;
+
+        private Operation(String name, Duration timeout, MeterRegistry meterRegistry) {
+            this.timeout = timeout;
+            this.retries = Counter.builder("repository.retries")
+                    .description("Repository reads retried after a retryable SQLSTATE")
+                    .tag("operation", name)
+                    .register(meterRegistry);
+            this.timeouts = Counter.builder("repository.timeouts")
+                    .description("Repository calls that ran past their timeout")
+                    .tag("operation", name)
+                    .register(meterRegistry);
+            this.hedges = Counter.builder("repository.hedges")
+                    .description("Hedged reads that sent a second query")
+                    .tag("operation", name)
+                    .register(meterRegistry);
+            this.hedgeWins = Counter.builder("repository.hedges.won")
+                    .description("Hedged reads answered by the second query")
+                    .tag("operation", name)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package academy.devdojo.webflux.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import academy.devdojo.webflux.config.RateLimitProperties.Bandwidth;
+
+/**
+ * Token bucket in its GCRA form: the whole state is one theoretical arrival time, advanced by
+ * one emission interval per request with a CAS, so acquiring never locks and there is no refill
+ * task. The bucket is full whenever that time is in the past.
+ */
+final class GcraBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    GcraBucket(Bandwidth bandwidth, long nowNanos) {
+        this.emissionIntervalNanos = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / bandwidth.getRefillPerSecond()));
+        this.burstNanos = emissionIntervalNanos * Math.max(1, bandwidth.getCapacity());
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @return {@code 0} when the request is allowed, otherwise how long until it would be
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + emissionIntervalNanos;
+            long waitNanos = next - nowNanos - burstNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    boolean isIdle(long nowNanos, long idleNanos) {
+        return theoreticalArrival.get() + idleNanos < nowNanos;
+    }
+}
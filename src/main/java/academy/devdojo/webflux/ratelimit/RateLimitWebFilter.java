@@ -0,0 +1,60 @@
+package academy.devdojo.webflux.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Applies {@link RateLimiter} to authenticated requests. It is not a bean of its own: it sits in
+ * the security filter chain right after authentication, so the principal is known, and is never
+ * added to the plain WebFlux chain.
+ */
+@RequiredArgsConstructor
+public class RateLimitWebFilter implements WebFilter {
+
+    private final RateLimiter rateLimiter;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!rateLimiter.appliesTo(exchange.getRequest().getPath().value())) {
+            return chain.filter(exchange);
+        }
+        boolean write = isWrite(exchange.getRequest().getMethod());
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(authentication -> authentication.isAuthenticated()
+                        && !(authentication instanceof AnonymousAuthenticationToken))
+                .map(authentication -> acquire(authentication, write))
+                .defaultIfEmpty(0L)
+                .flatMap(waitNanos -> waitNanos == 0 ? chain.filter(exchange) : reject(exchange, waitNanos));
+    }
+
+    private long acquire(Authentication authentication, boolean write) {
+        return rateLimiter.tryAcquire(authentication.getName(), authentication.getAuthorities(), write);
+    }
+
+    private static boolean isWrite(HttpMethod method) {
+        return !(HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method) || HttpMethod.OPTIONS.equals(method));
+    }
+
+    private static Mono<Void> reject(ServerWebExchange exchange, long waitNanos) {
+        ServerHttpResponse response = exchange.getResponse();
+        long seconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        return response.setComplete();
+    }
+}
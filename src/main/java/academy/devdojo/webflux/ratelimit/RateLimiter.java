@@ -0,0 +1,175 @@
+package academy.devdojo.webflux.ratelimit;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import academy.devdojo.webflux.config.RateLimitProperties;
+import academy.devdojo.webflux.config.RateLimitProperties.Bandwidth;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+/**
+ * Per-user request limits, one {@link GcraBucket} per principal, role and method kind. Buckets
+ * live in a {@link ConcurrentHashMap}, whose bins already stripe the lookups, and are evicted
+ * once they have sat full for {@code idleTimeout}; dropping a full bucket loses nothing, since a
+ * new one starts full too.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.rate-limit", name = "enabled", havingValue = "true")
+public class RateLimiter implements DisposableBean {
+
+    private static final String DEFAULT_ROLE = "default";
+
+    private final RateLimitProperties properties;
+    private final LongSupplier nanoClock;
+    private final List<RoleLimits> roleLimits = new ArrayList<>();
+    private final RoleLimits defaultLimits;
+    private final Map<Key, GcraBucket> buckets = new ConcurrentHashMap<>();
+    private final long idleNanos;
+    private final Counter evicted;
+
+    private Disposable evictionTask;
+
+    @Autowired
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+        this.evictionTask = Flux.interval(properties.getEvictionInterval())
+                .subscribe(tick -> evictIdle());
+    }
+
+    RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+        this.idleNanos = properties.getIdleTimeout().toNanos();
+        long now = nanoClock.getAsLong();
+        properties.getRoles().forEach((role, limits) -> roleLimits.add(new RoleLimits(role, limits, meterRegistry, now)));
+        this.defaultLimits = new RoleLimits(DEFAULT_ROLE, properties.getDefaults(), meterRegistry, now);
+        this.evicted = Counter.builder("http.server.rate.limit.evicted")
+                .description("Idle rate limit buckets removed")
+                .register(meterRegistry);
+        Gauge.builder("http.server.rate.limit.buckets", buckets, Map::size)
+                .description("Rate limit buckets currently held")
+                .register(meterRegistry);
+    }
+
+    public boolean appliesTo(String path) {
+        for (String prefix : properties.getPaths()) {
+            if (path.equals(prefix) || path.startsWith(prefix + "/")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Takes a token from the caller's bucket.
+     *
+     * @return {@code 0} when the request may proceed, otherwise nanoseconds until it could
+     */
+    public long tryAcquire(String principal, Collection<? extends GrantedAuthority> authorities, boolean write) {
+        Limit limit = limitsFor(authorities).limit(write);
+        long now = nanoClock.getAsLong();
+        Key key = new Key(principal, limit);
+        GcraBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.size() < properties.getMaxBuckets()
+                    ? buckets.computeIfAbsent(key, ignored -> new GcraBucket(limit.bandwidth, now))
+                    : limit.overflow;
+        }
+        long waitNanos = bucket.tryAcquire(now);
+        (waitNanos == 0 ? limit.allowed : limit.rejected).increment();
+        return waitNanos;
+    }
+
+    private RoleLimits limitsFor(Collection<? extends GrantedAuthority> authorities) {
+        for (RoleLimits limits : roleLimits) {
+            for (GrantedAuthority authority : authorities) {
+                if (limits.authority.equals(authority.getAuthority())) {
+                    return limits;
+                }
+            }
+        }
+        return defaultLimits;
+    }
+
+    void evictIdle() {
+        long now = nanoClock.getAsLong();
+        buckets.values().removeIf(bucket -> {
+            boolean idle = bucket.isIdle(now, idleNanos);
+            if (idle) {
+                evicted.increment();
+            }
+            return idle;
+        });
+    }
+
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    @Override
+    public void destroy() {
+        if (evictionTask != null) {
+            evictionTask.dispose();
+        }
+    }
+
+    private record Key(String principal, Limit limit) {
+    }
+
+    private static final class RoleLimits {
+
+        private final String authority;
+        private final Limit read;
+        private final Limit write;
+
+        RoleLimits(String role, RateLimitProperties.Limits limits, MeterRegistry meterRegistry, long now) {
+            this.authority = "ROLE_" + role.toUpperCase(Locale.ROOT);
+            String tag = role.toLowerCase(Locale.ROOT);
+            this.read = new Limit(tag, "read", limits.getRead(), meterRegistry, now);
+            this.write = new Limit(tag, "write", limits.getWrite(), meterRegistry, now);
+        }
+
+        Limit limit(boolean isWrite) {
+            return isWrite ? write : read;
+        }
+    }
+
+    private static final class Limit {
+
+        private final Bandwidth bandwidth;
+        private final GcraBucket overflow;
+        private final Counter allowed;
+        private final Counter rejected;
+
+        Limit(String role, String kind, Bandwidth bandwidth, MeterRegistry meterRegistry, long now) {
+            this.bandwidth = bandwidth;
+            this.overflow = new GcraBucket(bandwidth, now);
+            this.allowed = counter(meterRegistry, role, kind, "allowed");
+            this.rejected = counter(meterRegistry, role, kind, "rejected");
+        }
+
+        private static Counter counter(MeterRegistry meterRegistry, String role, String kind, String outcome) {
+            return Counter.builder("http.server.rate.limit.requests")
+                    .description("Requests checked against the per-user rate limit")
+                    .tag("role", role)
+                    .tag("kind", kind)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+}
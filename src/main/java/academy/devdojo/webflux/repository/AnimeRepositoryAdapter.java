@@ -0,0 +1,110 @@
+package academy.devdojo.webflux.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.reactivestreams.Publisher;
+
+import academy.devdojo.webflux.domain.Anime;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Base for {@link AnimeRepository} implementations that are not Spring Data proxies. Subclasses
+ * provide the core operations; the overloads taking publishers, single entities or ids are
+ * derived from them here.
+ */
+public abstract class AnimeRepositoryAdapter implements AnimeRepository {
+
+    @Override
+    public abstract <S extends Anime> Mono<S> save(S entity);
+
+    /**
+     * Saves every entity or none of them: when the returned Flux fails or is cancelled before it
+     * completes, nothing it emitted stays written.
+     */
+    @Override
+    public abstract <S extends Anime> Flux<S> saveAll(Iterable<S> entities);
+
+    @Override
+    public abstract Mono<Anime> findById(Integer id);
+
+    @Override
+    public abstract Flux<Anime> findAll();
+
+    @Override
+    public abstract Flux<Anime> findAllById(Iterable<Integer> ids);
+
+    @Override
+    public abstract Mono<Long> count();
+
+    @Override
+    public abstract Mono<Void> deleteById(Integer id);
+
+    @Override
+    public abstract Mono<Void> deleteAll();
+
+    @Override
+    public Mono<Anime> findById(int id) {
+        return findById(Integer.valueOf(id));
+    }
+
+    @Override
+    public Mono<Anime> findById(Publisher<Integer> id) {
+        return Mono.from(id).flatMap(this::findById);
+    }
+
+    @Override
+    public <S extends Anime> Flux<S> saveAll(Publisher<S> entityStream) {
+        return Flux.from(entityStream).collectList().flatMapMany(this::saveAll);
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Integer id) {
+        return findById(id).hasElement();
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Publisher<Integer> id) {
+        return Mono.from(id).flatMap(this::existsById);
+    }
+
+    @Override
+    public Flux<Anime> findAllById(Publisher<Integer> idStream) {
+        return Flux.from(idStream).collectList().flatMapMany(this::findAllById);
+    }
+
+    @Override
+    public Mono<Void> deleteById(Publisher<Integer> id) {
+        return Mono.from(id).flatMap(this::deleteById);
+    }
+
+    @Override
+    public Mono<Void> delete(Anime entity) {
+        return deleteById(entity.getId());
+    }
+
+    @Override
+    public Mono<Void> deleteAllById(Iterable<? extends Integer> ids) {
+        return Flux.fromIterable(ids).concatMap(this::deleteById).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Iterable<? extends Anime> entities) {
+        return Flux.fromIterable(entities).concatMap(this::delete).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Publisher<? extends Anime> entityStream) {
+        return Flux.from(entityStream).concatMap(this::delete).then();
+    }
+
+    protected static <T> List<T> toList(Iterable<T> iterable) {
+        if (iterable instanceof List<T> list) {
+            return list;
+        }
+        List<T> list = new ArrayList<>();
+        iterable.forEach(list::add);
+        return list;
+    }
+}
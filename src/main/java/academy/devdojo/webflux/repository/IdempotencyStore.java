@@ -0,0 +1,28 @@
+package academy.devdojo.webflux.repository;
+
+import java.time.Duration;
+
+import academy.devdojo.webflux.domain.IdempotencyRecord;
+import reactor.core.publisher.Mono;
+
+public interface IdempotencyStore {
+
+    /**
+     * Claims {@code key} for a new execution of the request whose body hashes to
+     * {@code requestHash}. Emits {@code true} when the caller owns the key, {@code false} when
+     * another request already claimed or completed it.
+     */
+    Mono<Boolean> claim(String key, String requestHash, Duration ttl);
+
+    /**
+     * Emits the unexpired record for {@code key}, or completes empty.
+     */
+    Mono<IdempotencyRecord> find(String key);
+
+    Mono<Void> complete(String key, String response, Duration ttl);
+
+    /**
+     * Drops an in-progress claim after a failure so the request can be retried.
+     */
+    Mono<Void> release(String key);
+}
@@ -0,0 +1,128 @@
+package academy.devdojo.webflux.repository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Repository;
+import org.springframework.web.server.ResponseStatusException;
+
+import academy.devdojo.webflux.config.IdempotencyProperties;
+import academy.devdojo.webflux.domain.IdempotencyRecord;
+import academy.devdojo.webflux.domain.IdempotencyRecord.Status;
+import reactor.core.publisher.Mono;
+
+/**
+ * Node-local store bounded to {@code app.idempotency.max-entries}. Completed responses are kept
+ * in completion order and the oldest one is dropped once full. Keys still in progress are held
+ * apart and never evicted; a claim is refused with 503 while {@code max-entries} of them are
+ * running.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "app.idempotency", name = "store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Map<String, IdempotencyRecord> inProgress = new HashMap<>();
+    private final LinkedHashMap<String, IdempotencyRecord> completed;
+    private final int maxEntries;
+    private final Clock clock;
+
+    @Autowired
+    public InMemoryIdempotencyStore(IdempotencyProperties properties) {
+        this(properties.getMaxEntries(), Clock.systemUTC());
+    }
+
+    public InMemoryIdempotencyStore(int maxEntries, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.completed = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyRecord> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public Mono<Boolean> claim(String key, String requestHash, Duration ttl) {
+        return Mono.fromCallable(() -> {
+            synchronized (this) {
+                Instant now = clock.instant();
+                if (lookup(key, now) != null) {
+                    return false;
+                }
+                if (inProgress.size() >= maxEntries) {
+                    throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                            "Too many requests with an Idempotency-Key in progress");
+                }
+                inProgress.put(key, new IdempotencyRecord(key, requestHash, Status.IN_PROGRESS, null, now.plus(ttl)));
+                return true;
+            }
+        });
+    }
+
+    @Override
+    public Mono<IdempotencyRecord> find(String key) {
+        return Mono.fromSupplier(() -> {
+            synchronized (this) {
+                return lookup(key, clock.instant());
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> complete(String key, String response, Duration ttl) {
+        return Mono.fromRunnable(() -> {
+            synchronized (this) {
+                IdempotencyRecord claim = inProgress.remove(key);
+                if (claim == null) {
+                    return;
+                }
+                Instant now = clock.instant();
+                completed.put(key, new IdempotencyRecord(key, claim.getRequestHash(), Status.COMPLETED, response,
+                        now.plus(ttl)));
+                dropExpired(now);
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> release(String key) {
+        return Mono.fromRunnable(() -> {
+            synchronized (this) {
+                inProgress.remove(key);
+            }
+        });
+    }
+
+    private IdempotencyRecord lookup(String key, Instant now) {
+        IdempotencyRecord record = completed.get(key);
+        Map<String, IdempotencyRecord> owner = completed;
+        if (record == null) {
+            record = inProgress.get(key);
+            owner = inProgress;
+        }
+        if (record != null && record.isExpired(now)) {
+            owner.remove(key);
+            return null;
+        }
+        return record;
+    }
+
+    /**
+     * Completed entries share one TTL, so the expired ones sit at the head.
+     */
+    private void dropExpired(Instant now) {
+        Iterator<IdempotencyRecord> oldest = completed.values().iterator();
+        while (oldest.hasNext() && oldest.next().isExpired(now)) {
+            oldest.remove();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package academy.devdojo.webflux.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import javax.sql.DataSource;
+
+import org.springframework.dao.TransientDataAccessResourceException;
+
+import academy.devdojo.webflux.domain.Anime;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * {@link AnimeRepository} on plain JDBC. Every statement runs on {@code scheduler}, meant to be
+ * backed by virtual threads, so the blocking calls never reach an event loop. Listings are read
+ * in full on that thread and then emitted, so they are not streamed the way R2DBC streams rows.
+ */
+public class JdbcAnimeRepository extends AnimeRepositoryAdapter {
+
+    private static final String SELECT = "SELECT id, name FROM anime";
+
+    private final DataSource dataSource;
+    private final Scheduler scheduler;
+
+    public JdbcAnimeRepository(DataSource dataSource, Scheduler scheduler) {
+        this.dataSource = dataSource;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public <S extends Anime> Mono<S> save(S entity) {
+        return withConnection(connection -> write(connection, entity));
+    }
+
+    @Override
+    public <S extends Anime> Flux<S> saveAll(Iterable<S> entities) {
+        List<S> animes = toList(entities);
+        // The transaction stays open until the caller has taken every row, so a failure
+        // downstream still rolls the whole batch back, as @Transactional does on R2DBC.
+        return Flux.usingWhen(
+                call(() -> {
+                    Connection connection = dataSource.getConnection();
+                    try {
+                        connection.setAutoCommit(false);
+                    } catch (SQLException e) {
+                        connection.close();
+                        throw e;
+                    }
+                    return connection;
+                }),
+                connection -> call(() -> {
+                    for (S anime : animes) {
+                        write(connection, anime);
+                    }
+                    return animes;
+                }).flatMapIterable(saved -> saved),
+                connection -> call(() -> {
+                    try (connection) {
+                        connection.commit();
+                    }
+                    return null;
+                }),
+                (connection, error) -> rollback(connection),
+                this::rollback);
+    }
+
+    @Override
+    public Mono<Anime> findById(Integer id) {
+        return withConnection(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(SELECT + " WHERE id = ?")) {
+                statement.setInt(1, id);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return resultSet.next() ? anime(resultSet) : null;
+                }
+            }
+        });
+    }
+
+    @Override
+    public Flux<Anime> findAll() {
+        return withConnection(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(SELECT + " ORDER BY id")) {
+                return list(statement);
+            }
+        }).flatMapIterable(animes -> animes);
+    }
+
+    @Override
+    public Flux<Anime> findAllById(Iterable<Integer> ids) {
+        Integer[] idArray = toList(ids).toArray(Integer[]::new);
+        return withConnection(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(SELECT + " WHERE id = ANY (?)")) {
+                statement.setArray(1, connection.createArrayOf("integer", idArray));
+                return list(statement);
+            }
+        }).flatMapIterable(animes -> animes);
+    }
+
+    @Override
+    public Mono<Long> count() {
+        return withConnection(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("SELECT count(*) FROM anime");
+                    ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong(1);
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> deleteById(Integer id) {
+        return withConnection(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("DELETE FROM anime WHERE id = ?")) {
+                statement.setInt(1, id);
+                statement.executeUpdate();
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> deleteAll() {
+        return withConnection(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("DELETE FROM anime")) {
+                statement.executeUpdate();
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Inserts {@code anime} when it has no id, and updates it otherwise, failing like Spring Data
+     * does when the row is gone.
+     */
+    private static <S extends Anime> S write(Connection connection, S anime) throws SQLException {
+        if (anime.getId() == null) {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO anime (name) VALUES (?) RETURNING id")) {
+                statement.setString(1, anime.getName());
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    anime.setId(resultSet.getInt(1));
+                }
+            }
+            return anime;
+        }
+        try (PreparedStatement statement = connection.prepareStatement("UPDATE anime SET name = ? WHERE id = ?")) {
+            statement.setString(1, anime.getName());
+            statement.setInt(2, anime.getId());
+            if (statement.executeUpdate() == 0) {
+                throw new TransientDataAccessResourceException(
+                        "Failed to update table [anime]; Row with Id [%s] does not exist".formatted(anime.getId()));
+            }
+        }
+        return anime;
+    }
+
+    private static List<Anime> list(PreparedStatement statement) throws SQLException {
+        List<Anime> animes = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                animes.add(anime(resultSet));
+            }
+        }
+        return animes;
+    }
+
+    private static Anime anime(ResultSet resultSet) throws SQLException {
+        return new Anime(resultSet.getInt(1), resultSet.getString(2));
+    }
+
+    private Mono<Void> rollback(Connection connection) {
+        return call(() -> {
+            try (connection) {
+                connection.rollback();
+            }
+            return null;
+        }).then();
+    }
+
+    private <T> Mono<T> withConnection(JdbcFunction<T> work) {
+        return call(() -> {
+            try (Connection connection = dataSource.getConnection()) {
+                return work.apply(connection);
+            }
+        });
+    }
+
+    private <T> Mono<T> call(Callable<T> work) {
+        return Mono.fromCallable(work).subscribeOn(scheduler);
+    }
+
+    @FunctionalInterface
+    private interface JdbcFunction<T> {
+        T apply(Connection connection) throws SQLException;
+    }
+}
@@ -0,0 +1,100 @@
+package academy.devdojo.webflux.repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import academy.devdojo.webflux.domain.IdempotencyRecord;
+import academy.devdojo.webflux.domain.IdempotencyRecord.Status;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Store shared by every node through the database. Expects:
+ *
+ * <pre>
+ * CREATE TABLE idempotency_record (
+ *     idempotency_key VARCHAR(512) PRIMARY KEY,
+ *     request_hash    VARCHAR(64)  NOT NULL,
+ *     status          VARCHAR(16)  NOT NULL,
+ *     response        TEXT,
+ *     expires_at      TIMESTAMPTZ  NOT NULL
+ * );
+ * </pre>
+ *
+ * {@code docker/init.sql} creates it on the compose database.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.idempotency", name = "store", havingValue = "table")
+public class R2dbcIdempotencyStore implements IdempotencyStore {
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Mono<Boolean> claim(String key, String requestHash, Duration ttl) {
+        OffsetDateTime now = now();
+        return databaseClient.sql("""
+                INSERT INTO idempotency_record (idempotency_key, request_hash, status, expires_at)
+                VALUES (:key, :requestHash, :status, :expiresAt)
+                ON CONFLICT (idempotency_key) DO UPDATE
+                SET request_hash = EXCLUDED.request_hash, status = EXCLUDED.status, response = NULL,
+                    expires_at = EXCLUDED.expires_at
+                WHERE idempotency_record.expires_at <= :now
+                """)
+                .bind("key", key)
+                .bind("requestHash", requestHash)
+                .bind("status", Status.IN_PROGRESS.name())
+                .bind("expiresAt", now.plus(ttl))
+                .bind("now", now)
+                .fetch()
+                .rowsUpdated()
+                .map(rows -> rows == 1);
+    }
+
+    @Override
+    public Mono<IdempotencyRecord> find(String key) {
+        return databaseClient.sql("""
+                SELECT request_hash, status, response, expires_at FROM idempotency_record
+                WHERE idempotency_key = :key AND expires_at > :now
+                """)
+                .bind("key", key)
+                .bind("now", now())
+                .map((row, metadata) -> new IdempotencyRecord(key,
+                        row.get("request_hash", String.class),
+                        Status.valueOf(row.get("status", String.class)),
+                        row.get("response", String.class),
+                        row.get("expires_at", OffsetDateTime.class).toInstant()))
+                .one();
+    }
+
+    @Override
+    public Mono<Void> complete(String key, String response, Duration ttl) {
+        return databaseClient.sql("""
+                UPDATE idempotency_record SET status = :status, response = :response, expires_at = :expiresAt
+                WHERE idempotency_key = :key
+                """)
+                .bind("key", key)
+                .bind("status", Status.COMPLETED.name())
+                .bind("response", response)
+                .bind("expiresAt", now().plus(ttl))
+                .then();
+    }
+
+    @Override
+    public Mono<Void> release(String key) {
+        return databaseClient.sql("DELETE FROM idempotency_record WHERE idempotency_key = :key AND status = :status")
+                .bind("key", key)
+                .bind("status", Status.IN_PROGRESS.name())
+                .then();
+    }
+
+    private static OffsetDateTime now() {
+        return Instant.now().atOffset(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,259 @@
+package academy.devdojo.webflux.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.reactivestreams.Publisher;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import academy.devdojo.webflux.domain.Anime;
+import academy.devdojo.webflux.r2dbc.AnimeReadingConverter;
+import academy.devdojo.webflux.sharding.BlockIdGenerator;
+import academy.devdojo.webflux.sharding.ShardingStrategy;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link AnimeRepository} over several databases, each holding the {@code anime} rows whose ids
+ * {@code strategy} maps to it. Every shard expects:
+ *
+ * <pre>
+ * CREATE TABLE anime (id INTEGER PRIMARY KEY, name VARCHAR NOT NULL);
+ * </pre>
+ *
+ * New ids come from {@code idGenerator} rather than the shard, so they are unique across shards
+ * and known before the row is routed. Lookups by id go to one shard. Listings query every shard
+ * in id order and merge the streams as rows arrive, requesting at most {@code prefetch} rows
+ * ahead from each shard.
+ */
+public class ShardedAnimeRepository extends AnimeRepositoryAdapter implements DisposableBean {
+
+    private static final AnimeReadingConverter READER = new AnimeReadingConverter();
+    private static final Comparator<Anime> BY_ID = Comparator.comparing(Anime::getId);
+    private static final String SELECT = "SELECT id, name FROM anime";
+
+    private final List<Shard> shards;
+    private final ShardingStrategy strategy;
+    private final BlockIdGenerator idGenerator;
+    private final int prefetch;
+
+    public ShardedAnimeRepository(List<? extends ConnectionFactory> connectionFactories, ShardingStrategy strategy,
+            BlockIdGenerator idGenerator, int prefetch) {
+        if (connectionFactories.size() != strategy.shardCount()) {
+            throw new IllegalArgumentException("%d shards configured for a strategy over %d"
+                    .formatted(connectionFactories.size(), strategy.shardCount()));
+        }
+        this.shards = connectionFactories.stream()
+                .map(connectionFactory -> new Shard(connectionFactory, DatabaseClient.create(connectionFactory)))
+                .toList();
+        this.strategy = strategy;
+        this.idGenerator = idGenerator;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    public <S extends Anime> Mono<S> save(S entity) {
+        if (entity.getId() != null) {
+            return bindName(shardFor(entity.getId()).client().sql("UPDATE anime SET name = :name WHERE id = :id")
+                    .bind("id", entity.getId()), entity)
+                    .fetch()
+                    .rowsUpdated()
+                    .flatMap(rows -> rows == 0 ? Mono.error(rowMissing(entity)) : Mono.just(entity));
+        }
+        return idGenerator.nextId()
+                .flatMap(id -> bindName(shardFor(id).client().sql("INSERT INTO anime (id, name) VALUES (:id, :name)")
+                        .bind("id", id), entity)
+                        .then()
+                        .then(Mono.fromSupplier(() -> {
+                            entity.setId(id);
+                            return entity;
+                        })));
+    }
+
+    /**
+     * Writes each shard's part of the batch in a transaction on that shard. The transactions are
+     * committed together once the caller has taken every row, and rolled back together if it
+     * fails or cancels first. There is no two-phase commit, so a shard failing during the commit
+     * itself can still leave the others written.
+     */
+    @Override
+    public <S extends Anime> Flux<S> saveAll(Iterable<S> entities) {
+        List<S> animes = toList(entities);
+        return Flux.fromIterable(animes)
+                .concatMap(anime -> anime.getId() != null
+                        ? Mono.just(new Write<>(anime, anime.getId(), false))
+                        : idGenerator.nextId().map(id -> new Write<>(anime, id, true)))
+                .collect(() -> new LinkedHashMap<Integer, List<Write<S>>>(),
+                        (byShard, write) -> byShard.computeIfAbsent(strategy.shardFor(write.id()),
+                                index -> new ArrayList<>()).add(write))
+                .flatMapMany(byShard -> Flux.usingWhen(
+                        begin(byShard.keySet()),
+                        connections -> Flux.fromIterable(byShard.entrySet())
+                                .flatMap(entry -> write(connections.get(entry.getKey()), entry.getValue()))
+                                .thenMany(Flux.fromIterable(animes)),
+                        connections -> finish(connections.values(), Connection::commitTransaction),
+                        (connections, error) -> finish(connections.values(), Connection::rollbackTransaction),
+                        connections -> finish(connections.values(), Connection::rollbackTransaction)));
+    }
+
+    @Override
+    public Mono<Anime> findById(Integer id) {
+        return shardFor(id).client().sql(SELECT + " WHERE id = :id")
+                .bind("id", id)
+                .map((row, metadata) -> READER.convert(row))
+                .one();
+    }
+
+    @Override
+    public Flux<Anime> findAll() {
+        return merge(shards.stream()
+                .map(shard -> shard.client().sql(SELECT + " ORDER BY id")
+                        .map((row, metadata) -> READER.convert(row))
+                        .all())
+                .toList());
+    }
+
+    @Override
+    public Flux<Anime> findAllById(Iterable<Integer> ids) {
+        Map<Integer, List<Integer>> byShard = new LinkedHashMap<>();
+        for (Integer id : ids) {
+            byShard.computeIfAbsent(strategy.shardFor(id), index -> new ArrayList<>()).add(id);
+        }
+        return merge(byShard.entrySet().stream()
+                .map(entry -> shards.get(entry.getKey()).client().sql(SELECT + " WHERE id = ANY(:ids) ORDER BY id")
+                        .bind("ids", entry.getValue().toArray(Integer[]::new))
+                        .map((row, metadata) -> READER.convert(row))
+                        .all())
+                .toList());
+    }
+
+    @Override
+    public Mono<Long> count() {
+        return Flux.fromIterable(shards)
+                .flatMap(shard -> shard.client().sql("SELECT count(*) FROM anime")
+                        .map(row -> row.get(0, Long.class))
+                        .one())
+                .reduce(0L, Long::sum);
+    }
+
+    @Override
+    public Mono<Void> deleteById(Integer id) {
+        return shardFor(id).client().sql("DELETE FROM anime WHERE id = :id")
+                .bind("id", id)
+                .then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll() {
+        return Flux.fromIterable(shards)
+                .flatMap(shard -> shard.client().sql("DELETE FROM anime").then())
+                .then();
+    }
+
+    @Override
+    public void destroy() {
+        shards.forEach(shard -> {
+            if (shard.connectionFactory() instanceof Disposable disposable) {
+                disposable.dispose();
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private Flux<Anime> merge(List<Flux<Anime>> sources) {
+        return Flux.mergeComparing(prefetch, BY_ID, sources.toArray(Flux[]::new));
+    }
+
+    private Shard shardFor(int id) {
+        return shards.get(strategy.shardFor(id));
+    }
+
+    /**
+     * Opens a connection and a transaction on each shard, closing whatever was opened if one of
+     * them fails.
+     */
+    private Mono<Map<Integer, Connection>> begin(Collection<Integer> shardIndexes) {
+        Map<Integer, Connection> connections = new ConcurrentHashMap<>();
+        return Flux.fromIterable(shardIndexes)
+                .flatMap(index -> Mono.from(shards.get(index).connectionFactory().create())
+                        .doOnNext(connection -> connections.put(index, connection))
+                        .flatMap(connection -> Mono.from(connection.beginTransaction())))
+                .then(Mono.fromSupplier(() -> connections))
+                .onErrorResume(e -> close(connections.values()).then(Mono.error(e)));
+    }
+
+    private Mono<Void> finish(Collection<Connection> connections, Function<Connection, Publisher<Void>> end) {
+        return Flux.fromIterable(connections)
+                .flatMap(connection -> Mono.from(end.apply(connection)))
+                .then()
+                .onErrorResume(e -> close(connections).then(Mono.error(e)))
+                .then(close(connections));
+    }
+
+    private static Mono<Void> close(Collection<Connection> connections) {
+        return Flux.fromIterable(connections)
+                .flatMap(connection -> Mono.from(connection.close()).onErrorResume(e -> Mono.empty()))
+                .then();
+    }
+
+    private static <S extends Anime> Mono<Void> write(Connection connection, List<Write<S>> writes) {
+        List<Write<S>> inserts = writes.stream().filter(Write::insert).toList();
+        Mono<Void> inserted = inserts.isEmpty() ? Mono.empty() : Flux.from(
+                batch(connection.createStatement("INSERT INTO anime (id, name) VALUES ($1, $2)"), inserts).execute())
+                .flatMap(Result::getRowsUpdated)
+                .then(Mono.fromRunnable(() -> inserts.forEach(write -> write.anime().setId(write.id()))));
+        return inserted.thenMany(Flux.fromIterable(writes)
+                .filter(write -> !write.insert())
+                .concatMap(write -> Flux.from(bind(connection.createStatement("UPDATE anime SET name = $2 WHERE id = $1"),
+                                write).execute())
+                        .flatMap(Result::getRowsUpdated)
+                        .reduce(0L, Long::sum)
+                        .flatMap(rows -> rows == 0 ? Mono.error(rowMissing(write.anime())) : Mono.empty())))
+                .then();
+    }
+
+    private static <S extends Anime> Statement batch(Statement statement, List<Write<S>> writes) {
+        for (int i = 0; i < writes.size(); i++) {
+            if (i > 0) {
+                statement.add();
+            }
+            bind(statement, writes.get(i));
+        }
+        return statement;
+    }
+
+    private static Statement bind(Statement statement, Write<?> write) {
+        statement.bind(0, write.id());
+        String name = write.anime().getName();
+        return name == null ? statement.bindNull(1, String.class) : statement.bind(1, name);
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindName(DatabaseClient.GenericExecuteSpec spec, Anime anime) {
+        return anime.getName() == null ? spec.bindNull("name", String.class) : spec.bind("name", anime.getName());
+    }
+
+    private static TransientDataAccessResourceException rowMissing(Anime anime) {
+        return new TransientDataAccessResourceException(
+                "Failed to update table [anime]; Row with Id [%s] does not exist".formatted(anime.getId()));
+    }
+
+    private record Shard(ConnectionFactory connectionFactory, DatabaseClient client) {
+    }
+
+    private record Write<S extends Anime>(S anime, int id, boolean insert) {
+    }
+}
@@ -0,0 +1,146 @@
+package academy.devdojo.webflux.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import academy.devdojo.webflux.config.AnimeChangeFeedProperties;
+import academy.devdojo.webflux.config.AnimeChangeFeedProperties.OverflowPolicy;
+import academy.devdojo.webflux.domain.Anime;
+import academy.devdojo.webflux.domain.AnimeChangeEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+
+/**
+ * Fans anime changes out to every {@code GET /animes/changes} subscriber.
+ * <p>
+ * Writers never wait for subscribers: {@link #publish} only numbers the event and queues it, and
+ * a single {@code anime-changes} thread fans it out. Each subscriber has its own bounded buffer
+ * and, once it is full, {@link OverflowPolicy} decides whether new events are dropped for that
+ * subscriber or its stream is ended. The latest {@code replaySize} events are kept so a
+ * subscriber can resume after the id it last saw.
+ */
+@Component
+public class AnimeChangeFeed implements DisposableBean {
+
+    private final Object lock = new Object();
+    private final Sinks.Many<AnimeChangeEvent> handoff = Sinks.many().unicast()
+            .onBackpressureBuffer(Queues.<AnimeChangeEvent>unboundedMultiproducer().get());
+    private final Sinks.Many<AnimeChangeEvent> sink = Sinks.many().multicast().directBestEffort();
+    private final Scheduler fanOut = Schedulers.newSingle("anime-changes", true);
+    private final AnimeChangeEvent[] replay;
+    private final AnimeChangeFeedProperties properties;
+    private final Counter dropped;
+    private final Counter disconnected;
+
+    private long sequence; // guarded by lock
+
+    public AnimeChangeFeed(AnimeChangeFeedProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.replay = new AnimeChangeEvent[Math.max(properties.getReplaySize(), 1)];
+        this.dropped = Counter.builder("anime.changes.dropped")
+                .description("Events dropped for subscribers whose buffer was full")
+                .register(meterRegistry);
+        this.disconnected = Counter.builder("anime.changes.disconnected")
+                .description("Subscribers disconnected because their buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("anime.changes.subscribers", sink, Sinks.Many::currentSubscriberCount)
+                .register(meterRegistry);
+        handoff.asFlux()
+                .publishOn(fanOut)
+                .subscribe(sink::tryEmitNext);
+    }
+
+    public void publish(AnimeChangeEvent.Type type, Anime anime) {
+        synchronized (lock) {
+            AnimeChangeEvent event = new AnimeChangeEvent(++sequence, type, anime, Instant.now());
+            replay[(int) (event.getId() % replay.length)] = event;
+            handoff.tryEmitNext(event); // under the lock so events are queued in id order
+        }
+    }
+
+    /**
+     * Streams changes made after {@code lastEventId}, replaying the ones still in the buffer,
+     * or only new changes when it is {@code null}.
+     */
+    public Flux<AnimeChangeEvent> subscribe(Long lastEventId) {
+        return Flux.defer(() -> {
+            List<AnimeChangeEvent> missed;
+            Forwarder forwarder;
+            synchronized (lock) {
+                missed = lastEventId == null ? List.of() : replaySince(lastEventId);
+                // Events up to here are replayed or predate the request, but may still be queued for fan-out
+                forwarder = new Forwarder(sequence);
+                sink.asFlux().subscribe(forwarder);
+            }
+
+            return Flux.concat(Flux.fromIterable(missed), forwarder.buffer.asFlux().doOnNext(forwarder::taken))
+                    .publishOn(Schedulers.parallel(), 1)
+                    .doFinally(signal -> forwarder.dispose());
+        });
+    }
+
+    @Override
+    public void destroy() {
+        handoff.tryEmitComplete();
+        fanOut.dispose();
+    }
+
+    private List<AnimeChangeEvent> replaySince(long lastEventId) {
+        List<AnimeChangeEvent> missed = new ArrayList<>();
+        for (long id = Math.max(lastEventId + 1, sequence - replay.length + 1); id <= sequence; id++) {
+            AnimeChangeEvent event = replay[(int) (id % replay.length)];
+            if (event != null && event.getId() == id) {
+                missed.add(event);
+            }
+        }
+        return missed;
+    }
+
+    private final class Forwarder extends BaseSubscriber<AnimeChangeEvent> {
+
+        private final Sinks.Many<AnimeChangeEvent> buffer = Sinks.many().unicast()
+                .onBackpressureBuffer(Queues.<AnimeChangeEvent>unbounded().get());
+        private final AtomicInteger buffered = new AtomicInteger();
+        private final long seenUpTo;
+
+        private Forwarder(long seenUpTo) {
+            this.seenUpTo = seenUpTo;
+        }
+
+        private void taken(AnimeChangeEvent event) {
+            buffered.decrementAndGet();
+        }
+
+        @Override
+        protected void hookOnNext(AnimeChangeEvent event) {
+            if (event.getId() <= seenUpTo) {
+                return;
+            }
+            if (buffered.get() < properties.getBufferSize()) {
+                buffered.incrementAndGet();
+                buffer.tryEmitNext(event);
+                return;
+            }
+            if (properties.getOverflow() == OverflowPolicy.DISCONNECT) {
+                disconnected.increment();
+                dispose();
+                buffer.tryEmitComplete();
+            } else {
+                dropped.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package academy.devdojo.webflux.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import academy.devdojo.webflux.domain.Anime;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Reads animes from CSV in the format written by {@link AnimeExportEncoder}: quoted fields may
+ * contain commas, doubled quotes and line breaks.
+ */
+public class AnimeCsvParser {
+
+    private static final StringDecoder LINE_DECODER = StringDecoder.allMimeTypes(List.of("\n"), true);
+
+    private final List<String> columns;
+
+    public AnimeCsvParser(List<String> columns) {
+        this.columns = columns;
+    }
+
+    public Flux<Anime> parse(Flux<DataBuffer> body, boolean header) {
+        Flux<String> lines = LINE_DECODER.decode(body, ResolvableType.forClass(String.class), null, null)
+                .map(line -> line.endsWith("\r") ? line.substring(0, line.length() - 1) : line);
+
+        return Flux.defer(() -> {
+            StringBuilder pending = new StringBuilder();
+            return lines.<String>handle((line, sink) -> {
+                if (!pending.isEmpty()) {
+                    pending.append('\n');
+                }
+                pending.append(line);
+                if (hasBalancedQuotes(pending)) {
+                    sink.next(pending.toString());
+                    pending.setLength(0);
+                }
+            });
+        })
+                .skip(header ? 1 : 0)
+                .filter(StringUtils::hasLength)
+                .map(this::toAnime);
+    }
+
+    private static boolean hasBalancedQuotes(CharSequence record) {
+        int quotes = 0;
+        for (int i = 0; i < record.length(); i++) {
+            if (record.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes % 2 == 0;
+    }
+
+    private Anime toAnime(String record) {
+        List<String> fields = split(record);
+        if (fields.size() != columns.size()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Expected " + columns.size() + " fields but got " + fields.size() + ": " + record);
+        }
+        Anime anime = new Anime();
+        for (int i = 0; i < columns.size(); i++) {
+            String value = fields.get(i);
+            if ("id".equals(columns.get(i))) {
+                anime.setId(value.isEmpty() ? null : Integer.valueOf(value));
+            } else {
+                anime.setName(value);
+            }
+        }
+        return anime;
+    }
+
+    static List<String> split(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,106 @@
+package academy.devdojo.webflux.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import academy.devdojo.webflux.domain.Anime;
+
+/**
+ * Writes chunks of animes as CSV or NDJSON straight into a {@link DataBuffer}, without building
+ * intermediate strings or byte arrays.
+ */
+public class AnimeExportEncoder {
+
+    private static final String CSV_HEADER = "id,name\n";
+    private static final int ESTIMATED_ROW_SIZE = 48;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter animeWriter;
+
+    public AnimeExportEncoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.animeWriter = objectMapper.writerFor(Anime.class);
+    }
+
+    public DataBuffer header(AnimeExportFormat format, DataBufferFactory bufferFactory) {
+        if (format != AnimeExportFormat.CSV) {
+            return bufferFactory.allocateBuffer(0);
+        }
+        return bufferFactory.allocateBuffer(CSV_HEADER.length()).write(CSV_HEADER, StandardCharsets.UTF_8);
+    }
+
+    public DataBuffer encode(List<Anime> animes, AnimeExportFormat format, DataBufferFactory bufferFactory) {
+        DataBuffer buffer = bufferFactory.allocateBuffer(animes.size() * ESTIMATED_ROW_SIZE);
+        try {
+            if (format == AnimeExportFormat.CSV) {
+                animes.forEach(anime -> writeCsvRow(anime, buffer));
+            } else {
+                writeNdjsonRows(animes, buffer);
+            }
+            return buffer;
+        } catch (RuntimeException e) {
+            DataBufferUtils.release(buffer);
+            throw e;
+        }
+    }
+
+    private void writeCsvRow(Anime anime, DataBuffer buffer) {
+        if (anime.getId() != null) {
+            buffer.write(Integer.toString(anime.getId()), StandardCharsets.US_ASCII);
+        }
+        buffer.write((byte) ',');
+        writeCsvField(anime.getName(), buffer);
+        buffer.write((byte) '\n');
+    }
+
+    private void writeCsvField(String value, DataBuffer buffer) {
+        if (value == null) {
+            return;
+        }
+        if (!needsQuoting(value)) {
+            buffer.write(value, StandardCharsets.UTF_8);
+            return;
+        }
+        buffer.write((byte) '"');
+        int start = 0;
+        for (int quote = value.indexOf('"'); quote >= 0; quote = value.indexOf('"', start)) {
+            buffer.write(value.subSequence(start, quote + 1), StandardCharsets.UTF_8);
+            buffer.write((byte) '"');
+            start = quote + 1;
+        }
+        buffer.write(value.subSequence(start, value.length()), StandardCharsets.UTF_8);
+        buffer.write((byte) '"');
+    }
+
+    private boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeNdjsonRows(List<Anime> animes, DataBuffer buffer) {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(buffer.asOutputStream())) {
+            generator.setRootValueSeparator(null);
+            for (Anime anime : animes) {
+                animeWriter.writeValue(generator, anime);
+                generator.writeRaw('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
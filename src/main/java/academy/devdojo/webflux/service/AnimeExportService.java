@@ -0,0 +1,71 @@
+package academy.devdojo.webflux.service;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import academy.devdojo.webflux.config.AnimeExportProperties;
+import academy.devdojo.webflux.config.PersistenceProperties;
+import academy.devdojo.webflux.domain.Anime;
+import academy.devdojo.webflux.r2dbc.ReadWriteRouting;
+import academy.devdojo.webflux.repository.AnimeRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Streams the whole catalog from a database cursor into response buffers, so memory stays
+ * bounded by {@code rowsPerChunk} whatever the size of the table. With another persistence engine
+ * than {@code r2dbc} the rows come from its {@link AnimeRepository} instead, which for
+ * {@code sharded} still streams but for {@code jdbc} reads the table in full first.
+ */
+@Service
+public class AnimeExportService {
+
+    private final DatabaseClient databaseClient;
+    private final AnimeRepository animeRepository;
+    private final boolean r2dbcEngine;
+    private final AnimeExportProperties properties;
+    private final AnimeExportEncoder encoder;
+
+    public AnimeExportService(DatabaseClient databaseClient, AnimeRepository animeRepository,
+            PersistenceProperties persistenceProperties, AnimeExportProperties properties,
+            ObjectMapper objectMapper) {
+        this.databaseClient = databaseClient;
+        this.animeRepository = animeRepository;
+        this.r2dbcEngine = persistenceProperties.isR2dbcEngine();
+        this.properties = properties;
+        this.encoder = new AnimeExportEncoder(objectMapper);
+    }
+
+    public Flux<DataBuffer> export(AnimeExportFormat format, boolean gzip, DataBufferFactory bufferFactory) {
+        Flux<DataBuffer> plain = Flux.concat(
+                Mono.fromSupplier(() -> encoder.header(format, bufferFactory)),
+                findAllOrderedById()
+                        .buffer(properties.getRowsPerChunk())
+                        .map(animes -> encoder.encode(animes, format, bufferFactory)));
+
+        Flux<DataBuffer> body = !gzip ? plain
+                : Flux.using(() -> new GzipDataBufferCompressor(bufferFactory, properties.getGzipLevel()),
+                        compressor -> plain.map(compressor::compress)
+                                .concatWith(Mono.fromSupplier(compressor::finish)),
+                        GzipDataBufferCompressor::end);
+        return body.doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    private Flux<Anime> findAllOrderedById() {
+        if (!r2dbcEngine) {
+            return animeRepository.findAll()
+                    .contextWrite(ReadWriteRouting.readOnly());
+        }
+        return databaseClient.sql("SELECT id, name FROM anime ORDER BY id")
+                .filter((statement, next) -> next.execute(statement.fetchSize(properties.getFetchSize())))
+                .map((row, metadata) -> new Anime(row.get("id", Integer.class), row.get("name", String.class)))
+                .all()
+                .contextWrite(ReadWriteRouting.readOnly());
+    }
+}
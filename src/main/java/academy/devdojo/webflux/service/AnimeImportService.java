@@ -0,0 +1,195 @@
+package academy.devdojo.webflux.service;
+
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import academy.devdojo.webflux.config.AnimeImportProperties;
+import academy.devdojo.webflux.config.PersistenceProperties;
+import academy.devdojo.webflux.domain.Anime;
+import academy.devdojo.webflux.domain.AnimeImportReport;
+import academy.devdojo.webflux.r2dbc.ReadWriteRouting;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import io.r2dbc.spi.Wrapped;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Loads CSV into the {@code anime} table with PostgreSQL {@code COPY FROM STDIN}, streaming the
+ * body to the server without parsing it. With {@code replace}, rows are first copied into a
+ * temporary staging table and then swapped in within one transaction, so a failed load leaves
+ * the catalog untouched. Other databases get a batched INSERT fallback. Imports write to
+ * {@code spring.r2dbc.url} directly, so they are refused unless that is where animes are stored.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnimeImportService {
+
+    private static final Set<String> COLUMNS = Set.of("id", "name");
+    private static final String STAGING_TABLE = "anime_import";
+
+    private final DatabaseClient databaseClient;
+    private final AnimeImportProperties properties;
+    private final PersistenceProperties persistenceProperties;
+
+    public Mono<AnimeImportReport> importCsv(Flux<DataBuffer> body, List<String> columns, boolean header,
+            boolean replace) {
+        return Mono.defer(() -> {
+            if (!persistenceProperties.isR2dbcEngine()) {
+                return Mono.error(new ResponseStatusException(HttpStatus.NOT_IMPLEMENTED,
+                        "Imports are not available with app.persistence.engine=" + persistenceProperties.getEngine()));
+            }
+            validate(columns);
+            long start = System.nanoTime();
+            return databaseClient.inConnection(connection -> {
+                PostgresqlConnection postgresqlConnection = unwrap(connection);
+                Mono<Long> rows = postgresqlConnection != null
+                        ? copy(postgresqlConnection, body, columns, header, replace)
+                        : insertFallback(connection, body, columns, header, replace);
+                return rows.map(count -> AnimeImportReport.of(count, Duration.ofNanos(System.nanoTime() - start),
+                        postgresqlConnection != null));
+            }).contextWrite(ReadWriteRouting.write());
+        })
+                .doOnNext(report -> log.info("Imported {} animes in {} ms ({} rows/s)", report.getRows(),
+                        report.getElapsedMillis(), (long) report.getRowsPerSecond()));
+    }
+
+    /**
+     * Imports a file from {@code app.anime.import.directory}, read through an NIO asynchronous
+     * channel.
+     */
+    public Mono<AnimeImportReport> importFile(String fileName, List<String> columns, boolean header,
+            boolean replace) {
+        if (!StringUtils.hasText(properties.getDirectory())) {
+            return Mono.error(new ResponseStatusException(HttpStatus.FORBIDDEN, "Server-side imports are disabled"));
+        }
+        Path directory = Path.of(properties.getDirectory()).toAbsolutePath().normalize();
+        Path file = directory.resolve(fileName).normalize();
+        if (!file.startsWith(directory) || file.equals(directory)) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid import file"));
+        }
+
+        Flux<DataBuffer> body = DataBufferUtils.readAsynchronousFileChannel(
+                () -> AsynchronousFileChannel.open(file, StandardOpenOption.READ),
+                DefaultDataBufferFactory.sharedInstance, properties.getReadBufferSize())
+                .subscribeOn(Schedulers.boundedElastic());
+        return importCsv(body, columns, header, replace);
+    }
+
+    private Mono<Long> copy(PostgresqlConnection connection, Flux<DataBuffer> body, List<String> columns,
+            boolean header, boolean replace) {
+        String columnList = String.join(", ", columns);
+        if (!replace) {
+            return copyIn(connection, "anime", columnList, body, header)
+                    .flatMap(rows -> resetSequence(connection, columns).thenReturn(rows));
+        }
+
+        return Mono.from(connection.beginTransaction())
+                .then(execute(connection, "CREATE TEMPORARY TABLE " + STAGING_TABLE
+                        + " (LIKE anime INCLUDING DEFAULTS) ON COMMIT DROP"))
+                .then(copyIn(connection, STAGING_TABLE, columnList, body, header))
+                .flatMap(rows -> execute(connection, "TRUNCATE anime")
+                        .then(execute(connection, "INSERT INTO anime (" + columnList + ") SELECT " + columnList
+                                + " FROM " + STAGING_TABLE))
+                        .then(resetSequence(connection, columns))
+                        .then(Mono.from(connection.commitTransaction()))
+                        .thenReturn(rows))
+                .onErrorResume(e -> Mono.from(connection.rollbackTransaction()).then(Mono.error(e)));
+    }
+
+    private Mono<Long> copyIn(PostgresqlConnection connection, String table, String columnList,
+            Flux<DataBuffer> body, boolean header) {
+        return connection.copyIn("COPY " + table + " (" + columnList + ") FROM STDIN WITH (FORMAT csv, HEADER "
+                + header + ")", body.map(NettyDataBufferFactory::toByteBuf));
+    }
+
+    private Mono<Void> resetSequence(Connection connection, List<String> columns) {
+        if (!columns.contains("id")) {
+            return Mono.empty();
+        }
+        return execute(connection,
+                "SELECT setval(pg_get_serial_sequence('anime', 'id'), COALESCE(MAX(id), 1)) FROM anime");
+    }
+
+    private Mono<Long> insertFallback(Connection connection, Flux<DataBuffer> body, List<String> columns,
+            boolean header, boolean replace) {
+        String sql = "INSERT INTO anime (" + String.join(", ", columns) + ") VALUES ("
+                + (columns.size() == 1 ? "$1" : "$1, $2") + ")";
+
+        Flux<Long> inserted = new AnimeCsvParser(columns).parse(body, header)
+                .buffer(properties.getFallbackBatchSize())
+                .concatMap(animes -> executeBatch(connection.createStatement(sql), animes, columns));
+
+        return Mono.from(connection.beginTransaction())
+                .then(replace ? execute(connection, "DELETE FROM anime") : Mono.empty())
+                .then(inserted.reduce(0L, Long::sum))
+                .flatMap(rows -> Mono.from(connection.commitTransaction()).thenReturn(rows))
+                .onErrorResume(e -> Mono.from(connection.rollbackTransaction()).then(Mono.error(e)));
+    }
+
+    private Mono<Long> executeBatch(Statement statement, List<Anime> animes, List<String> columns) {
+        for (int i = 0; i < animes.size(); i++) {
+            if (i > 0) {
+                statement.add();
+            }
+            Anime anime = animes.get(i);
+            for (int column = 0; column < columns.size(); column++) {
+                Object value = "id".equals(columns.get(column)) ? anime.getId() : anime.getName();
+                if (value == null) {
+                    statement.bindNull(column, "id".equals(columns.get(column)) ? Integer.class : String.class);
+                } else {
+                    statement.bind(column, value);
+                }
+            }
+        }
+        return Flux.from(statement.execute())
+                .flatMap(Result::getRowsUpdated)
+                .reduce(0L, Long::sum);
+    }
+
+    private Mono<Void> execute(Connection connection, String sql) {
+        return Flux.from(connection.createStatement(sql).execute())
+                .flatMap(Result::getRowsUpdated)
+                .then();
+    }
+
+    private void validate(List<String> columns) {
+        if (columns.isEmpty() || !COLUMNS.containsAll(columns) || columns.size() != Set.copyOf(columns).size()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Columns must be id and/or name");
+        }
+    }
+
+    private static PostgresqlConnection unwrap(Connection connection) {
+        Object current = connection;
+        while (true) {
+            if (current instanceof PostgresqlConnection postgresqlConnection) {
+                return postgresqlConnection;
+            }
+            if (!(current instanceof Wrapped<?> wrapped) || wrapped.unwrap() == current) {
+                return null;
+            }
+            current = wrapped.unwrap();
+        }
+    }
+}
@@ -1,62 +1,121 @@
 package academy.devdojo.webflux.service;
 
+import java.util.ArrayList;
 import java.util.List;
 
-import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.NoTransactionException;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.server.ResponseStatusException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
 
 import academy.devdojo.webflux.domain.Anime;
+import academy.devdojo.webflux.domain.AnimeChangeEvent;
+import academy.devdojo.webflux.exception.DomainException;
+import academy.devdojo.webflux.r2dbc.ReadWriteRouting;
+import academy.devdojo.webflux.r2dbc.RepositoryResilience;
 import academy.devdojo.webflux.repository.AnimeRepository;
 import ch.qos.logback.core.util.StringUtil;
 import lombok.RequiredArgsConstructor;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SynchronousSink;
 
 @Service
 @RequiredArgsConstructor
 public class AnimeService {
     private final AnimeRepository animeRepository;
+    private final AnimeWriteCoalescer animeWriteCoalescer;
+    private final AnimeChangeFeed animeChangeFeed;
+    private final RepositoryResilience resilience;
 
     public Flux<Anime> findAll() {
-        return animeRepository.findAll();
+        return animeRepository.findAll()
+                .transform(resilience.readMany("anime.findAll"))
+                .contextWrite(ReadWriteRouting.readOnly());
     }
 
     public Mono<Anime> findById(int id) {
+        return findExistingById(id)
+                .contextWrite(ReadWriteRouting.readOnly());
+    }
+
+    private Mono<Anime> findExistingById(int id) {
         return animeRepository.findById(id)
-                .switchIfEmpty(monoResponseStatusNotFoundException());
+                .transform(resilience.hedgedRead("anime.findById"))
+                .switchIfEmpty(monoAnimeNotFoundException());
+    }
+
+    public Flux<AnimeChangeEvent> changes(Long lastEventId) {
+        return animeChangeFeed.subscribe(lastEventId);
     }
 
     public Mono<Anime> save(Anime anime) {
-        return animeRepository.save(anime);
+        Mono<Anime> saved = anime.getId() == null && animeWriteCoalescer.isEnabled()
+                ? animeWriteCoalescer.insert(anime)
+                : animeRepository.save(anime);
+        return saved.transform(resilience.write("anime.save"))
+                .doOnNext(created -> animeChangeFeed.publish(AnimeChangeEvent.Type.CREATED, created))
+                .contextWrite(ReadWriteRouting.write());
     }
 
     @Transactional
     public Flux<Anime> saveAll(List<Anime> animes) {
-        return animeRepository.saveAll(animes)
-                .doOnNext(this::throwResponseStatusExceptionWhenEmptyName);
+        return Flux.defer(() -> {
+            List<Anime> saved = new ArrayList<>(animes.size());
+            return animeRepository.saveAll(animes)
+                    .transform(resilience.writeMany("anime.saveAll"))
+                    .handle(this::throwDomainExceptionWhenEmptyName)
+                    .doOnNext(saved::add)
+                    .concatWith(afterCommit(() -> saved.forEach(
+                            created -> animeChangeFeed.publish(AnimeChangeEvent.Type.CREATED, created))));
+        });
+    }
+
+    /**
+     * Runs {@code action} once the surrounding transaction has committed, or right away when
+     * there is none, so subscribers never see rows that are later rolled back.
+     */
+    private static <T> Mono<T> afterCommit(Runnable action) {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .filter(TransactionSynchronizationManager::isSynchronizationActive)
+                .doOnNext(manager -> manager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public Mono<Void> afterCommit() {
+                        return Mono.fromRunnable(action);
+                    }
+                }))
+                .onErrorResume(NoTransactionException.class, e -> Mono.empty())
+                .switchIfEmpty(Mono.fromRunnable(action))
+                .then(Mono.empty());
     }
 
-    private void throwResponseStatusExceptionWhenEmptyName(Anime anime) {
+    private void throwDomainExceptionWhenEmptyName(Anime anime, SynchronousSink<Anime> sink) {
         if (StringUtil.isNullOrEmpty(anime.getName())) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Name cannot be empty");
+            sink.error(DomainException.EMPTY_NAME.in(sink.contextView()));
+        } else {
+            sink.next(anime);
         }
     }
 
     public Mono<Void> update(Anime anime) {
-        return findById(anime.getId())
-                .flatMap(validAnime -> animeRepository.save(anime))
-                .then();
+        return findExistingById(anime.getId())
+                .flatMap(validAnime -> animeRepository.save(anime).transform(resilience.write("anime.save")))
+                .doOnNext(updated -> animeChangeFeed.publish(AnimeChangeEvent.Type.UPDATED, updated))
+                .then()
+                .contextWrite(ReadWriteRouting.write());
     }
 
     public Mono<Void> delete(int id) {
-        return findById(id)
-                .flatMap(animeRepository::delete);
+        return findExistingById(id)
+                .flatMap(anime -> animeRepository.delete(anime)
+                        .transform(resilience.write("anime.delete"))
+                        .then(Mono.<Void>fromRunnable(() -> animeChangeFeed.publish(AnimeChangeEvent.Type.DELETED, anime))))
+                .contextWrite(ReadWriteRouting.write());
     }
 
-    public <T> Mono<T> monoResponseStatusNotFoundException() {
-        return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Anime not found"));
+    public <T> Mono<T> monoAnimeNotFoundException() {
+        return DomainException.ANIME_NOT_FOUND.mono();
     }
 }
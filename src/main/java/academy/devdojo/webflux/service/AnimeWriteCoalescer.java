@@ -0,0 +1,245 @@
+package academy.devdojo.webflux.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import academy.devdojo.webflux.config.AnimeWriteCoalescerProperties;
+import academy.devdojo.webflux.config.PersistenceProperties;
+import academy.devdojo.webflux.domain.Anime;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+/**
+ * Collects concurrent single-anime inserts for up to {@code maxDelay} or {@code maxBatchSize}
+ * items and writes them with one multi-row {@code INSERT}. Each caller gets its own row back,
+ * matched by the ordinal of its insert in the batch, since PostgreSQL does not promise
+ * {@code RETURNING} rows in input order. When a batch fails, its inserts are retried one by one
+ * so a bad row only fails its own caller. Should the flusher itself fail, every insert it had not
+ * answered is failed and a new flusher takes over.
+ * <p>
+ * Callers on different event loops insert at the same time, so inserts go through a lock-free
+ * multi-producer queue first. Whichever caller finds the queue idle drains it into the sink for
+ * everyone, which keeps emission serialized without any caller spinning or waiting.
+ */
+@Slf4j
+@Component
+public class AnimeWriteCoalescer implements DisposableBean {
+
+    private final Function<List<Anime>, Flux<Inserted>> batchInsert;
+    private final AnimeWriteCoalescerProperties properties;
+    private final DistributionSummary batchSize;
+    private final Timer addedLatency;
+    private final Counter fallbacks;
+    private volatile Flusher flusher;
+    private volatile boolean stopped;
+
+    @Autowired
+    public AnimeWriteCoalescer(DatabaseClient databaseClient, AnimeWriteCoalescerProperties properties,
+            PersistenceProperties persistenceProperties, MeterRegistry meterRegistry) {
+        this(animes -> insertReturning(databaseClient, animes), properties, meterRegistry);
+        // Batches go to spring.r2dbc.url, bypassing the engine's repository and its ids.
+        if (properties.isEnabled() && !persistenceProperties.isR2dbcEngine()) {
+            destroy();
+            throw new IllegalStateException("app.anime.write-coalescing.enabled needs "
+                    + "app.persistence.engine=r2dbc, not " + persistenceProperties.getEngine());
+        }
+    }
+
+    AnimeWriteCoalescer(Function<List<Anime>, Flux<Inserted>> batchInsert, AnimeWriteCoalescerProperties properties,
+            MeterRegistry meterRegistry) {
+        this.batchInsert = batchInsert;
+        this.properties = properties;
+        this.batchSize = DistributionSummary.builder("anime.write.coalescer.batch.size")
+                .description("Inserts written per multi-row statement")
+                .register(meterRegistry);
+        this.addedLatency = Timer.builder("anime.write.coalescer.delay")
+                .description("Time an insert waited for its batch to be flushed")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("anime.write.coalescer.fallbacks")
+                .description("Batches retried row by row after a failure")
+                .register(meterRegistry);
+        if (properties.isEnabled()) {
+            this.flusher = startFlusher();
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public Mono<Anime> insert(Anime anime) {
+        return Mono.defer(() -> {
+            PendingInsert insert = new PendingInsert(anime, System.nanoTime(), Sinks.one());
+            Flusher current = enqueue(insert);
+            return insert.result().asMono()
+                    .doFinally(signal -> current.unanswered().remove(insert));
+        });
+    }
+
+    private Flusher enqueue(PendingInsert insert) {
+        Flusher current = flusher;
+        if (current == null) {
+            throw new IllegalStateException("Anime write coalescing is disabled");
+        }
+        current.unanswered().add(insert);
+        current.queue().offer(insert);
+        drain(current);
+        return current;
+    }
+
+    private void drain(Flusher current) {
+        if (current.wip().getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            PendingInsert insert;
+            while ((insert = current.queue().poll()) != null) {
+                // Only a flusher that has failed or been stopped refuses an insert.
+                if (current.pending().tryEmitNext(insert).isFailure()) {
+                    insert.result().tryEmitError(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                            "Anime write coalescer is not accepting inserts"));
+                }
+            }
+            if (stopped) {
+                current.pending().tryEmitComplete();
+            }
+            missed = current.wip().addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * Buffers with fair backpressure, so a timer firing while every flush slot is busy waits for
+     * a slot instead of failing the flusher. The sink skips Reactor's concurrent-emission check,
+     * since {@link #drain} is its only producer.
+     */
+    private Flusher startFlusher() {
+        Sinks.Many<PendingInsert> pending = Sinks.unsafe().many().unicast().onBackpressureBuffer();
+        Set<PendingInsert> unanswered = ConcurrentHashMap.newKeySet();
+        Flusher started = new Flusher(Queues.<PendingInsert>unboundedMultiproducer().get(), new AtomicInteger(),
+                pending, unanswered, Disposables.swap());
+        started.subscription().update(pending.asFlux()
+                .bufferTimeout(properties.getMaxBatchSize(), properties.getMaxDelay(), true)
+                .flatMap(this::flush, properties.getMaxConcurrentFlushes())
+                .subscribe(null, error -> restart(started, error)));
+        return started;
+    }
+
+    private synchronized void restart(Flusher failed, Throwable error) {
+        log.error("Anime write coalescer failed, failing {} waiting inserts and restarting",
+                failed.unanswered().size(), error);
+        if (!stopped && flusher == failed) {
+            flusher = startFlusher();
+        }
+        failed.unanswered().forEach(insert -> insert.result().tryEmitError(error));
+    }
+
+    private Mono<Void> flush(List<PendingInsert> batch) {
+        long flushedAt = System.nanoTime();
+        batchSize.record(batch.size());
+        batch.forEach(insert -> addedLatency.record(flushedAt - insert.enqueuedAt(), TimeUnit.NANOSECONDS));
+
+        return Flux.defer(() -> batchInsert.apply(batch.stream().map(PendingInsert::anime).toList()))
+                .collectList()
+                .flatMap(saved -> {
+                    Anime[] byOrdinal = new Anime[batch.size()];
+                    for (Inserted inserted : saved) {
+                        if (inserted.ordinal() >= 0 && inserted.ordinal() < byOrdinal.length) {
+                            byOrdinal[inserted.ordinal()] = inserted.anime();
+                        }
+                    }
+                    if (saved.size() != batch.size() || Arrays.asList(byOrdinal).contains(null)) {
+                        return Mono.error(new IllegalStateException(
+                                "Expected " + batch.size() + " inserted rows but got " + saved.size()));
+                    }
+                    for (int i = 0; i < batch.size(); i++) {
+                        batch.get(i).result().tryEmitValue(byOrdinal[i]);
+                    }
+                    return Mono.<Void>empty();
+                })
+                .onErrorResume(e -> batch.size() > 1 ? flushOneByOne(batch, e) : failAll(batch, e));
+    }
+
+    private Mono<Void> flushOneByOne(List<PendingInsert> batch, Throwable cause) {
+        log.debug("Batch of {} inserts failed, retrying one by one", batch.size(), cause);
+        fallbacks.increment();
+        return Flux.fromIterable(batch)
+                .flatMap(insert -> Flux.defer(() -> batchInsert.apply(List.of(insert.anime())))
+                        .single()
+                        .doOnNext(saved -> insert.result().tryEmitValue(saved.anime()))
+                        .doOnError(e -> insert.result().tryEmitError(e))
+                        .onErrorResume(e -> Mono.empty()))
+                .then();
+    }
+
+    private Mono<Void> failAll(List<PendingInsert> batch, Throwable cause) {
+        batch.forEach(insert -> insert.result().tryEmitError(cause));
+        return Mono.empty();
+    }
+
+    /**
+     * Takes the ids from the sequence behind {@code anime.id} up front, so each inserted row can
+     * be reported with the ordinal of the anime it came from.
+     */
+    private static Flux<Inserted> insertReturning(DatabaseClient databaseClient, List<Anime> animes) {
+        String[] names = animes.stream().map(Anime::getName).toArray(String[]::new);
+        return databaseClient.sql("""
+                WITH input AS (
+                    SELECT nextval(pg_get_serial_sequence('anime', 'id'))::int AS id, name, ordinal
+                    FROM unnest($1::text[]) WITH ORDINALITY AS t(name, ordinal)
+                ), inserted AS (
+                    INSERT INTO anime (id, name) SELECT id, name FROM input RETURNING id
+                )
+                SELECT input.ordinal, input.id, input.name FROM inserted JOIN input USING (id)
+                """)
+                .bind(0, names)
+                .map((row, metadata) -> new Inserted(row.get("ordinal", Long.class).intValue() - 1,
+                        new Anime(row.get("id", Integer.class), row.get("name", String.class))))
+                .all();
+    }
+
+    @Override
+    public synchronized void destroy() {
+        stopped = true;
+        if (flusher != null) {
+            drain(flusher);
+            flusher.subscription().dispose();
+        }
+    }
+
+    /**
+     * A row written by a batch insert, with the zero-based position of its anime in the batch.
+     */
+    record Inserted(int ordinal, Anime anime) {
+    }
+
+    private record PendingInsert(Anime anime, long enqueuedAt, Sinks.One<Anime> result) {
+    }
+
+    private record Flusher(Queue<PendingInsert> queue, AtomicInteger wip, Sinks.Many<PendingInsert> pending,
+            Set<PendingInsert> unanswered, Disposable.Swap subscription) {
+    }
+}
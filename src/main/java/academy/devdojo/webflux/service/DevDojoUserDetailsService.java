@@ -4,6 +4,8 @@ import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import academy.devdojo.webflux.r2dbc.ReadWriteRouting;
+import academy.devdojo.webflux.r2dbc.RepositoryResilience;
 import academy.devdojo.webflux.repository.DevDojoUserRepository;
 import lombok.RequiredArgsConstructor;
 import reactor.core.publisher.Mono;
@@ -13,11 +15,14 @@ import reactor.core.publisher.Mono;
 public class DevDojoUserDetailsService implements ReactiveUserDetailsService {
 
     private final DevDojoUserRepository devDojoUserRepository;
+    private final RepositoryResilience resilience;
 
     @Override
     public Mono<UserDetails> findByUsername(String username) {
         return devDojoUserRepository.findByUsername(username)
-                .cast(UserDetails.class);
+                .transform(resilience.read("user.findByUsername"))
+                .cast(UserDetails.class)
+                .contextWrite(ReadWriteRouting.readOnly());
     }
 
 }
@@ -0,0 +1,111 @@
+package academy.devdojo.webflux.service;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+/**
+ * Compresses a stream of {@link DataBuffer}s into one gzip member, deflating straight from the
+ * input buffers into the output ones. Every chunk is sync-flushed so the client receives data as
+ * it is produced. Not thread-safe: use one instance per response and call {@link #end()} when done.
+ */
+public class GzipDataBufferCompressor {
+
+    private static final byte[] HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+    private static final int MIN_WRITABLE = 4096;
+
+    private final DataBufferFactory bufferFactory;
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private long uncompressedSize;
+    private boolean headerWritten;
+
+    public GzipDataBufferCompressor(DataBufferFactory bufferFactory, int level) {
+        this.bufferFactory = bufferFactory;
+        this.deflater = new Deflater(level, true);
+    }
+
+    /**
+     * Compresses and releases {@code input}.
+     */
+    public DataBuffer compress(DataBuffer input) {
+        DataBuffer output = allocate(input.readableByteCount() / 2);
+        try (DataBuffer.ByteBufferIterator chunks = input.readableByteBuffers()) {
+            while (chunks.hasNext()) {
+                ByteBuffer chunk = chunks.next();
+                uncompressedSize += chunk.remaining();
+                crc.update(chunk.duplicate());
+                deflater.setInput(chunk);
+                while (!deflater.needsInput()) {
+                    deflateInto(output, Deflater.NO_FLUSH);
+                }
+            }
+            while (deflateInto(output, Deflater.SYNC_FLUSH) == 0) {
+                // the output filled up, more is pending
+            }
+            return output;
+        } catch (RuntimeException e) {
+            DataBufferUtils.release(output);
+            throw e;
+        } finally {
+            DataBufferUtils.release(input);
+        }
+    }
+
+    /**
+     * Writes the end of the gzip stream.
+     */
+    public DataBuffer finish() {
+        DataBuffer output = allocate(0);
+        deflater.finish();
+        while (!deflater.finished()) {
+            deflateInto(output, Deflater.NO_FLUSH);
+        }
+        writeIntLittleEndian(output, (int) crc.getValue());
+        writeIntLittleEndian(output, (int) uncompressedSize);
+        return output;
+    }
+
+    public void end() {
+        deflater.end();
+    }
+
+    private DataBuffer allocate(int expectedSize) {
+        DataBuffer output = bufferFactory.allocateBuffer(Math.max(expectedSize, MIN_WRITABLE));
+        if (!headerWritten) {
+            output.write(HEADER);
+            headerWritten = true;
+        }
+        return output;
+    }
+
+    /**
+     * Deflates into the free space of {@code output}. Returns the free space left afterwards, so
+     * zero means the deflater may have more to write.
+     */
+    private int deflateInto(DataBuffer output, int flush) {
+        output.ensureWritable(MIN_WRITABLE);
+        int written;
+        int remaining;
+        try (DataBuffer.ByteBufferIterator targets = output.writableByteBuffers()) {
+            ByteBuffer target = targets.next();
+            int start = target.position();
+            deflater.deflate(target, flush);
+            written = target.position() - start;
+            remaining = target.remaining();
+        }
+        output.writePosition(output.writePosition() + written);
+        return remaining;
+    }
+
+    private static void writeIntLittleEndian(DataBuffer output, int value) {
+        output.write((byte) value)
+                .write((byte) (value >> 8))
+                .write((byte) (value >> 16))
+                .write((byte) (value >> 24));
+    }
+}
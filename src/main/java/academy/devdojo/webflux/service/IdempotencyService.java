@@ -0,0 +1,135 @@
+package academy.devdojo.webflux.service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import academy.devdojo.webflux.config.IdempotencyProperties;
+import academy.devdojo.webflux.domain.IdempotencyRecord;
+import academy.devdojo.webflux.repository.IdempotencyStore;
+import lombok.RequiredArgsConstructor;
+
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs a request at most once per {@code Idempotency-Key}. Retries of a request that is still
+ * running share its result, and retries of a finished request get the stored response back.
+ * Keys are scoped by operation and principal, so clients cannot see each other's responses.
+ * Reusing a key with a different request body is answered with 422.
+ */
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore idempotencyStore;
+    private final IdempotencyProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ConcurrentHashMap<String, Mono<?>> inFlight = new ConcurrentHashMap<>();
+
+    public <T> Mono<T> execute(String idempotencyKey, String operation, Object request,
+            TypeReference<T> responseType, Mono<T> action) {
+        if (!StringUtils.hasText(idempotencyKey)) {
+            return action;
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Idempotency-Key is too long"));
+        }
+
+        return currentPrincipal()
+                .flatMap(principal -> shared(operation + ':' + principal + ':' + idempotencyKey, hash(request),
+                        responseType, action));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Mono<T> shared(String key, String requestHash, TypeReference<T> responseType, Mono<T> action) {
+        // A retry with a different body must not share this run's result; it reaches the store and gets 422
+        return (Mono<T>) inFlight.computeIfAbsent(key + ':' + requestHash,
+                k -> executeOnce(key, requestHash, responseType, action)
+                        .doFinally(signal -> inFlight.remove(k))
+                        .cache());
+    }
+
+    private <T> Mono<T> executeOnce(String key, String requestHash, TypeReference<T> responseType,
+            Mono<T> action) {
+        return idempotencyStore.find(key)
+                .flatMap(record -> checkSameRequest(record, requestHash).isCompleted()
+                        ? Mono.just(read(record, responseType))
+                        : awaitCompletion(key, requestHash, responseType))
+                .switchIfEmpty(Mono.defer(() -> idempotencyStore.claim(key, requestHash, properties.getTtl())
+                        .flatMap(claimed -> claimed
+                                ? run(key, action)
+                                : awaitCompletion(key, requestHash, responseType))));
+    }
+
+    private <T> Mono<T> run(String key, Mono<T> action) {
+        return action
+                .flatMap(result -> idempotencyStore.complete(key, write(result), properties.getTtl())
+                        .thenReturn(result))
+                .onErrorResume(e -> idempotencyStore.release(key).then(Mono.error(e)));
+    }
+
+    private <T> Mono<T> awaitCompletion(String key, String requestHash, TypeReference<T> responseType) {
+        return Mono.defer(() -> idempotencyStore.find(key))
+                .filter(record -> checkSameRequest(record, requestHash).isCompleted())
+                .repeatWhenEmpty(attempts -> attempts.delayElements(properties.getPollInterval()))
+                .timeout(properties.getWaitTimeout(), Mono.error(new ResponseStatusException(HttpStatus.CONFLICT,
+                        "A request with this Idempotency-Key is still in progress")))
+                .map(record -> read(record, responseType));
+    }
+
+    private static IdempotencyRecord checkSameRequest(IdempotencyRecord record, String requestHash) {
+        if (!record.matches(requestHash)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used with a different request body");
+        }
+        return record;
+    }
+
+    private Mono<String> currentPrincipal() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .map(Authentication::getName)
+                .defaultIfEmpty("anonymous");
+    }
+
+    private String hash(Object request) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    private <T> T read(IdempotencyRecord record, TypeReference<T> responseType) {
+        try {
+            return objectMapper.readValue(record.getResponse(), responseType);
+        } catch (JsonProcessingException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+}
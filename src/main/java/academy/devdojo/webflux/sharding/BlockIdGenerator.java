@@ -0,0 +1,90 @@
+package academy.devdojo.webflux.sharding;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Hands out ids unique across every node from blocks of {@code blockSize}: block {@code n} covers
+ * {@code n * blockSize + 1} to {@code (n + 1) * blockSize}. Block numbers come from
+ * {@code nextBlock}, a database sequence shared by the cluster, so a round trip is only needed
+ * once per block. Ids are unique but only roughly ordered across nodes, and the rest of a block
+ * is skipped when a node restarts.
+ */
+public class BlockIdGenerator {
+
+    private final Supplier<Mono<Long>> nextBlock;
+    private final int blockSize;
+    private volatile Block current = new Block(0, 0);
+    private Mono<Block> refill;
+
+    public BlockIdGenerator(Supplier<Mono<Long>> nextBlock, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.nextBlock = nextBlock;
+        this.blockSize = blockSize;
+    }
+
+    public Mono<Integer> nextId() {
+        return Mono.defer(() -> {
+            Block block = current;
+            int id = block.next.getAndIncrement();
+            if (id < block.end) {
+                return Mono.just(id);
+            }
+            return refill(block).then(nextId());
+        });
+    }
+
+    /**
+     * Fetches one new block however many callers ran out of the same one at once.
+     */
+    private synchronized Mono<Block> refill(Block exhausted) {
+        if (current != exhausted) {
+            return Mono.just(current);
+        }
+        if (refill == null) {
+            refill = nextBlock.get()
+                    .map(this::block)
+                    .doOnNext(this::install)
+                    .doOnError(e -> clearRefill())
+                    .cache();
+        }
+        return refill;
+    }
+
+    private Block block(long number) {
+        long first = number * blockSize + 1;
+        long end = first + blockSize;
+        if (end > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Anime ids are exhausted at block " + number);
+        }
+        return new Block((int) first, (int) end);
+    }
+
+    /**
+     * Clears the refill together with the block it fetched, so callers finding the new block
+     * exhausted start another fetch instead of replaying this one.
+     */
+    private synchronized void install(Block block) {
+        current = block;
+        refill = null;
+    }
+
+    private synchronized void clearRefill() {
+        refill = null;
+    }
+
+    private static final class Block {
+
+        private final AtomicInteger next;
+        private final int end;
+
+        private Block(int first, int end) {
+            this.next = new AtomicInteger(first);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package academy.devdojo.webflux.sharding;
+
+/**
+ * Spreads ids evenly over {@code shardCount} shards whatever their pattern, since consecutive ids
+ * handed out from one block would otherwise land in a fixed rotation.
+ */
+public class HashShardingStrategy implements ShardingStrategy {
+
+    private final int shardCount;
+
+    public HashShardingStrategy(int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("At least one shard is needed");
+        }
+        this.shardCount = shardCount;
+    }
+
+    @Override
+    public int shardFor(int id) {
+        return Math.floorMod(mix(id), shardCount);
+    }
+
+    @Override
+    public int shardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Murmur3's finalizer.
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
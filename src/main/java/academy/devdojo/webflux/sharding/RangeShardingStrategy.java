@@ -0,0 +1,39 @@
+package academy.devdojo.webflux.sharding;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Shard {@code i} owns the ids below {@code upperBounds[i]} and at or above the previous bound;
+ * the last shard owns everything above the last bound. Keeps neighbouring ids together, at the
+ * cost of sending all new ids to the shard owning the current range.
+ */
+public class RangeShardingStrategy implements ShardingStrategy {
+
+    private final int[] upperBounds;
+
+    public RangeShardingStrategy(List<Integer> upperBounds, int shardCount) {
+        if (upperBounds.size() != shardCount - 1) {
+            throw new IllegalArgumentException("%d shards need %d range bounds, got %d"
+                    .formatted(shardCount, shardCount - 1, upperBounds.size()));
+        }
+        this.upperBounds = upperBounds.stream().mapToInt(Integer::intValue).toArray();
+        for (int i = 1; i < this.upperBounds.length; i++) {
+            if (this.upperBounds[i] <= this.upperBounds[i - 1]) {
+                throw new IllegalArgumentException("Range bounds must be increasing: " + upperBounds);
+            }
+        }
+    }
+
+    @Override
+    public int shardFor(int id) {
+        int index = Arrays.binarySearch(upperBounds, id);
+        // An id equal to a bound belongs to the next shard.
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    @Override
+    public int shardCount() {
+        return upperBounds.length + 1;
+    }
+}
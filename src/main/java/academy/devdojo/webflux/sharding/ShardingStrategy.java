@@ -0,0 +1,12 @@
+package academy.devdojo.webflux.sharding;
+
+/**
+ * Maps an id to the index of the shard that owns it. The mapping must not change while data is
+ * stored under it: rows are not moved between shards.
+ */
+public interface ShardingStrategy {
+
+    int shardFor(int id);
+
+    int shardCount();
+}
@@ -0,0 +1,163 @@
+package academy.devdojo.webflux.warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.DecoderHttpMessageReader;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers;
+import org.springframework.stereotype.Component;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import academy.devdojo.webflux.config.CodecConfig;
+import academy.devdojo.webflux.config.WarmupProperties;
+import academy.devdojo.webflux.domain.Anime;
+import academy.devdojo.webflux.exception.ErrorAttributesBody;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Exercises the server codecs, the security chain and the {@code AnimeController} routes in-process
+ * once every singleton exists, before the server starts listening. Running inside the refresh
+ * rather than as an application runner means the CDS training run, which stops at
+ * {@code spring.context.exit=onRefresh}, records the classes this work loads. Routes are called
+ * through the application's {@code HttpHandler} as an anonymous and as a mock {@code USER}
+ * principal, only for {@code app.warmup.anime-id}, so a single row is read at most. Failures and
+ * timeouts are logged and never stop startup; a 401, 404 or 500 is as good as a 200 here.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.warmup", name = "enabled", havingValue = "true")
+public class StartupWarmup implements SmartInitializingSingleton {
+
+    private static final List<MediaType> MEDIA_TYPES = List.of(MediaType.APPLICATION_JSON,
+            CodecConfig.APPLICATION_SMILE, MediaType.APPLICATION_CBOR);
+    private static final ResolvableType ANIME = ResolvableType.forClass(Anime.class);
+    private static final ResolvableType ANIMES = ResolvableType.forClassWithGenerics(List.class, Anime.class);
+    private static final ResolvableType ERROR_BODY = ResolvableType.forClass(ErrorAttributesBody.class);
+    private static final ResolvableType ERROR = ResolvableType.forClassWithGenerics(Map.class, String.class,
+            Object.class);
+
+    private final WarmupProperties properties;
+    private final ServerCodecConfigurer codecConfigurer;
+    private final ApplicationContext applicationContext;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        warmup()
+                .timeout(properties.getTimeout())
+                .doOnError(e -> log.warn("Warmup did not complete: {}", e.toString()))
+                .onErrorComplete()
+                .block();
+        log.info("Warmup finished in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    Mono<Void> warmup() {
+        return warmCodecs().then(warmRoutes());
+    }
+
+    Mono<Void> warmCodecs() {
+        DataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+        List<Anime> animes = IntStream.rangeClosed(1, 32)
+                .mapToObj(i -> new Anime(i, "Warmup anime " + i))
+                .toList();
+        ErrorAttributesBody error = new ErrorAttributesBody(
+                Map.of("status", 404, "error", "Not Found", "path", "/animes/1"));
+
+        return Flux.range(0, properties.getIterations())
+                .concatMap(i -> Flux.fromIterable(MEDIA_TYPES)
+                        .concatMap(mediaType -> Mono.when(
+                                roundTrip(Flux.fromIterable(animes), ANIME, ANIMES, mediaType, bufferFactory),
+                                roundTrip(Mono.just(animes), ANIMES, ANIMES, mediaType, bufferFactory),
+                                roundTrip(Mono.just(error), ERROR_BODY, ERROR, mediaType, bufferFactory))))
+                .then();
+    }
+
+    Mono<Void> warmRoutes() {
+        WebTestClient anonymous = WebTestClient.bindToApplicationContext(applicationContext)
+                .apply(SecurityMockServerConfigurers.springSecurity())
+                .configureClient()
+                .responseTimeout(properties.getTimeout())
+                .build();
+        WebTestClient user = anonymous.mutateWith(SecurityMockServerConfigurers.mockUser("warmup").roles("USER"));
+        String path = "/animes/" + properties.getAnimeId();
+
+        return Flux.range(0, properties.getIterations())
+                .concatMap(i -> Mono.when(exchange(anonymous, path), exchange(user, path)))
+                .then();
+    }
+
+    /**
+     * WebTestClient blocks until the response is read, so each call runs on boundedElastic.
+     */
+    private static Mono<Void> exchange(WebTestClient client, String path) {
+        return Mono.<Void>fromRunnable(() -> client.get()
+                        .uri(path)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .exchange()
+                        .expectBody()
+                        .returnResult())
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorComplete();
+    }
+
+    /**
+     * Encodes {@code value} as {@code type} and reads it back as {@code readType}. A Flux of
+     * animes is written as an array, which not every decoder can stream, so it is read back whole.
+     */
+    @SuppressWarnings("unchecked")
+    private Mono<Void> roundTrip(Publisher<?> value, ResolvableType type, ResolvableType readType,
+            MediaType mediaType, DataBufferFactory bufferFactory) {
+        Encoder<Object> encoder = findEncoder(type, mediaType);
+        Decoder<Object> decoder = findDecoder(readType, mediaType);
+        if (encoder == null) {
+            return Mono.empty();
+        }
+        Flux<DataBuffer> encoded = encoder.encode((Publisher<Object>) value, bufferFactory, type, mediaType,
+                Map.of());
+        if (decoder == null) {
+            return encoded.doOnNext(DataBufferUtils::release).then();
+        }
+        return decoder.decodeToMono(DataBufferUtils.join(encoded), readType, mediaType, Map.of()).then();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Encoder<Object> findEncoder(ResolvableType type, MediaType mediaType) {
+        return codecConfigurer.getWriters().stream()
+                .filter(EncoderHttpMessageWriter.class::isInstance)
+                .map(writer -> (Encoder<Object>) ((EncoderHttpMessageWriter<?>) writer).getEncoder())
+                .filter(encoder -> encoder.canEncode(type, mediaType))
+                .findFirst()
+                .orElse(null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Decoder<Object> findDecoder(ResolvableType type, MediaType mediaType) {
+        return codecConfigurer.getReaders().stream()
+                .filter(DecoderHttpMessageReader.class::isInstance)
+                .map(reader -> (Decoder<Object>) ((DecoderHttpMessageReader<?>) reader).getDecoder())
+                .filter(decoder -> decoder.canDecode(type, mediaType))
+                .findFirst()
+                .orElse(null);
+    }
+}
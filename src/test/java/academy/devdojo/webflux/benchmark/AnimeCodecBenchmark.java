@@ -0,0 +1,120 @@
+package academy.devdojo.webflux.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import academy.devdojo.webflux.config.BinaryJacksonEncoder;
+import academy.devdojo.webflux.config.CodecConfig;
+import academy.devdojo.webflux.domain.Anime;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Encodes and decodes a {@code GET /animes} sized page with each codec registered in
+ * {@link CodecConfig}. Payload sizes are printed once per fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnimeCodecBenchmark {
+
+    private static final ResolvableType ANIME = ResolvableType.forClass(Anime.class);
+    private static final ResolvableType ANIMES = ResolvableType.forClassWithGenerics(List.class, Anime.class);
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    @Param({"100"})
+    public int size;
+
+    private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+    private Encoder<Object> encoder;
+    private Decoder<Object> decoder;
+    private MediaType mediaType;
+    private List<Anime> animes;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        animes = IntStream.rangeClosed(1, size)
+                .mapToObj(id -> new Anime(id, "Anime number " + id))
+                .toList();
+        switch (format) {
+            case "json" -> {
+                ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+                encoder = new Jackson2JsonEncoder(mapper);
+                decoder = new Jackson2JsonDecoder(mapper);
+                mediaType = MediaType.APPLICATION_JSON;
+            }
+            case "smile" -> {
+                ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+                encoder = new BinaryJacksonEncoder(mapper, CodecConfig.APPLICATION_SMILE,
+                        CodecConfig.APPLICATION_STREAM_SMILE);
+                decoder = new Jackson2SmileDecoder(mapper);
+                mediaType = CodecConfig.APPLICATION_SMILE;
+            }
+            case "cbor" -> {
+                ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+                encoder = new BinaryJacksonEncoder(mapper, MediaType.APPLICATION_CBOR,
+                        CodecConfig.APPLICATION_CBOR_SEQ);
+                decoder = new Jackson2CborDecoder(mapper);
+                mediaType = MediaType.APPLICATION_CBOR;
+            }
+            default -> throw new IllegalArgumentException(format);
+        }
+        payload = encode();
+        if (decode().size() != size) {
+            throw new IllegalStateException(format + " payload did not decode back to " + size + " animes");
+        }
+        System.out.printf("%n%s payload for %d animes: %d bytes%n", format, size, payload.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        DataBuffer joined = DataBufferUtils.join(encoder.encode(Flux.fromIterable(animes), bufferFactory, ANIME,
+                mediaType, Map.of())).block();
+        byte[] bytes = new byte[joined.readableByteCount()];
+        joined.read(bytes);
+        DataBufferUtils.release(joined);
+        return bytes;
+    }
+
+    @Benchmark
+    public List<?> decode() {
+        return (List<?>) decoder.decodeToMono(Mono.just(bufferFactory.wrap(payload)), ANIMES, mediaType, Map.of())
+                .block();
+    }
+}
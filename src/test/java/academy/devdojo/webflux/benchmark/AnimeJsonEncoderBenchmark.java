@@ -0,0 +1,133 @@
+package academy.devdojo.webflux.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import academy.devdojo.webflux.config.AnimeJsonSerializer;
+import academy.devdojo.webflux.config.LeanJsonEncoder;
+import academy.devdojo.webflux.domain.Anime;
+import academy.devdojo.webflux.exception.ErrorAttributesBody;
+import io.netty.buffer.PooledByteBufAllocator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Compares the reflective {@link Jackson2JsonEncoder} with {@link LeanJsonEncoder} on the
+ * responses of {@code GET /animes/{id}}, {@code GET /animes} and an error, writing into pooled
+ * Netty buffers like the server does. Setup also prints the bytes allocated per request, taken
+ * from the thread allocation counter. Run with {@code -prof gc} for JMH's own
+ * {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnimeJsonEncoderBenchmark {
+
+    private static final ResolvableType ANIME = ResolvableType.forClass(Anime.class);
+    private static final ResolvableType ERROR = ResolvableType.forClass(ErrorAttributesBody.class);
+    private static final int ALLOCATION_SAMPLES = 20_000;
+
+    @Param({"reflective", "lean"})
+    public String encoderType;
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+    private Encoder<Object> encoder;
+    private Anime anime;
+    private List<Anime> animes;
+    private ErrorAttributesBody error;
+    private long written;
+
+    @Setup
+    public void setUp() {
+        anime = new Anime(42, "Fullmetal Alchemist: Brotherhood");
+        animes = IntStream.rangeClosed(1, 100).mapToObj(id -> new Anime(id, "Anime number " + id)).toList();
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("timestamp", "2026-10-19T10:15:30.000+00:00");
+        error.put("path", "/animes/42");
+        error.put("status", 404);
+        error.put("error", "Not Found");
+        error.put("requestId", "6f1c2a7e-1");
+        error.put("message", "404 NOT_FOUND \"Anime not found\"");
+        error.put("developerMessage", "A ResponseStatusException was thrown");
+        this.error = new ErrorAttributesBody(error);
+
+        if ("lean".equals(encoderType)) {
+            encoder = new LeanJsonEncoder(Jackson2ObjectMapperBuilder.json()
+                    .serializers(new AnimeJsonSerializer())
+                    .build());
+        } else {
+            ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+            encoder = new Jackson2JsonEncoder(mapper);
+        }
+
+        System.out.printf("%n%s bytes allocated per request: single=%d, list=%d, error=%d%n", encoderType,
+                allocatedPerCall(this::single), allocatedPerCall(this::list), allocatedPerCall(this::error));
+    }
+
+    private static long allocatedPerCall(LongSupplier request) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        for (int i = 0; i < ALLOCATION_SAMPLES; i++) {
+            request.getAsLong();
+        }
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ALLOCATION_SAMPLES; i++) {
+            request.getAsLong();
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - before) / ALLOCATION_SAMPLES;
+    }
+
+    private long drain(Flux<DataBuffer> buffers) {
+        buffers.subscribe(buffer -> {
+            written += buffer.readableByteCount();
+            DataBufferUtils.release(buffer);
+        });
+        return written;
+    }
+
+    @Benchmark
+    public long single() {
+        return drain(encoder.encode(Mono.just(anime), bufferFactory, ANIME, MediaType.APPLICATION_JSON, Map.of()));
+    }
+
+    @Benchmark
+    public long list() {
+        return drain(encoder.encode(Flux.fromIterable(animes), bufferFactory, ANIME, MediaType.APPLICATION_JSON,
+                Map.of()));
+    }
+
+    @Benchmark
+    public long error() {
+        return drain(encoder.encode(Mono.just(error), bufferFactory, ERROR, MediaType.APPLICATION_JSON, Map.of()));
+    }
+}
@@ -0,0 +1,50 @@
+package academy.devdojo.webflux.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import academy.devdojo.webflux.SpringWebfluxEssentialsApplication;
+
+/**
+ * Cold start of the whole application with diagnostics mode off, on, and on together with the
+ * Reactor debug agent. Every measurement is a fresh JVM, since BlockHound and the agent can only
+ * be installed once per process. The database is not needed to start.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 5, jvmArgsAppend = "-XX:+AllowRedefinitionToAddDeleteMethods")
+public class DiagnosticsStartupBenchmark {
+
+    @Param({"off", "blockhound", "blockhound+agent"})
+    public String mode;
+
+    @Benchmark
+    public void startAndStop() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                SpringWebfluxEssentialsApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.devtools.restart.enabled=false",
+                        "logging.level.root=warn",
+                        "app.diagnostics.enabled=" + !"off".equals(mode),
+                        "spring.reactor.debug-agent.enabled=" + mode.endsWith("agent"))
+                .run()) {
+            context.getId();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package academy.devdojo.webflux.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import academy.devdojo.webflux.config.DiagnosticsProperties;
+import academy.devdojo.webflux.diagnostics.BlockingCallRecorder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.tools.agent.ReactorDebugAgent;
+
+/**
+ * Throughput of a request-shaped Reactor pipeline (map, filter, a hop to the parallel scheduler,
+ * collect) with diagnostics mode off, on, and on with the Reactor debug agent. Each mode runs in
+ * its own forks, since instrumentation cannot be undone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "-XX:+AllowRedefinitionToAddDeleteMethods")
+public class DiagnosticsThroughputBenchmark {
+
+    @Param({"off", "blockhound", "blockhound+agent"})
+    public String mode;
+
+    @Setup
+    public void setUp() {
+        if (mode.endsWith("agent")) {
+            ReactorDebugAgent.init();
+            ReactorDebugAgent.processExistingClasses();
+        }
+        if (!"off".equals(mode)) {
+            new BlockingCallRecorder(new DiagnosticsProperties(), new SimpleMeterRegistry()).install();
+        }
+    }
+
+    @Benchmark
+    public List<Integer> pipeline() {
+        return Flux.range(0, 64)
+                .map(i -> i * 31)
+                .filter(i -> i % 3 != 0)
+                .publishOn(Schedulers.parallel())
+                .map(i -> i + 1)
+                .collectList()
+                .block();
+    }
+}
@@ -0,0 +1,157 @@
+package academy.devdojo.webflux.benchmark;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.r2dbc.convert.MappingR2dbcConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.dialect.PostgresDialect;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import academy.devdojo.webflux.config.R2dbcConversionsConfig;
+import academy.devdojo.webflux.domain.Anime;
+import academy.devdojo.webflux.repository.AnimeRepository;
+import academy.devdojo.webflux.repository.JdbcAnimeRepository;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * The operations {@code AnimeService} uses, run side by side on the Spring Data R2DBC repository
+ * and on JDBC over virtual threads, both with the same pool size. Each invocation issues
+ * {@code concurrency} calls at once, the way concurrent requests reach the repository. Needs the
+ * database from docker-compose.yml, seeded with at least {@code rows} animes:
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=PersistenceEngineBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PersistenceEngineBenchmark {
+
+    @Param({"r2dbc", "jdbc"})
+    public String engine;
+
+    @Param({"1", "64", "512"})
+    public int concurrency;
+
+    @Param("20")
+    public int poolSize;
+
+    @Param("100")
+    public int rows;
+
+    @Param("localhost:5432")
+    public String host;
+
+    private AnimeRepository repository;
+    private ConnectionPool connectionPool;
+    private HikariDataSource dataSource;
+    private Scheduler scheduler;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("r2dbc".equals(engine)) {
+            ConnectionFactoryOptions options = ConnectionFactoryOptions
+                    .parse("r2dbc:postgresql://" + host + "/webflux?schema=anime").mutate()
+                    .option(ConnectionFactoryOptions.USER, "postgres")
+                    .option(ConnectionFactoryOptions.PASSWORD, "postgres")
+                    .build();
+            connectionPool = new ConnectionPool(ConnectionPoolConfiguration
+                    .builder(ConnectionFactories.get(options))
+                    .initialSize(poolSize)
+                    .maxSize(poolSize)
+                    .build());
+            MappingR2dbcConverter converter = new MappingR2dbcConverter(new R2dbcMappingContext(),
+                    R2dbcCustomConversions.of(PostgresDialect.INSTANCE, R2dbcConversionsConfig.CONVERTERS));
+            R2dbcEntityTemplate template = new R2dbcEntityTemplate(DatabaseClient.create(connectionPool),
+                    PostgresDialect.INSTANCE, converter);
+            repository = new R2dbcRepositoryFactory(template).getRepository(AnimeRepository.class);
+        } else {
+            HikariConfig config = new HikariConfig();
+            config.setJdbcUrl("jdbc:postgresql://" + host + "/webflux?currentSchema=anime");
+            config.setUsername("postgres");
+            config.setPassword("postgres");
+            config.setMaximumPoolSize(poolSize);
+            config.setMinimumIdle(poolSize);
+            dataSource = new HikariDataSource(config);
+            scheduler = Schedulers.fromExecutorService(
+                    Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("jdbc-", 0).factory()), "jdbc");
+            repository = new JdbcAnimeRepository(dataSource, scheduler);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+        if (dataSource != null) {
+            dataSource.close();
+            scheduler.dispose();
+        }
+    }
+
+    @Benchmark
+    public Object findById() {
+        return Flux.range(0, concurrency)
+                .flatMap(i -> repository.findById(1 + i % rows), concurrency)
+                .blockLast();
+    }
+
+    @Benchmark
+    public Object findAll() {
+        return Flux.range(0, concurrency)
+                .flatMap(i -> repository.findAll().count(), concurrency)
+                .blockLast();
+    }
+
+    @Benchmark
+    public Object saveUpdateDelete() {
+        return Flux.range(0, concurrency)
+                .flatMap(i -> repository.save(new Anime(null, "benchmark-" + i))
+                        .flatMap(saved -> repository.save(saved.withName(saved.getName() + "-updated")))
+                        .flatMap(repository::delete), concurrency)
+                .blockLast();
+    }
+
+    @Benchmark
+    public Object saveAll() {
+        List<Anime> animes = Flux.range(0, concurrency)
+                .map(i -> new Anime(null, "benchmark-" + i))
+                .collectList()
+                .block();
+        return repository.saveAll(animes)
+                .concatMap(repository::delete)
+                .blockLast();
+    }
+}
@@ -0,0 +1,70 @@
+package academy.devdojo.webflux.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import academy.devdojo.webflux.config.RateLimitProperties;
+import academy.devdojo.webflux.config.RateLimitProperties.Bandwidth;
+import academy.devdojo.webflux.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Throughput of {@link RateLimiter#tryAcquire} with every available core hammering it, both on
+ * a single hot principal (all threads CAS the same bucket) and spread over many principals. Pass
+ * {@code -t} to JMH to try other thread counts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(Threads.MAX)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final List<GrantedAuthority> USER = AuthorityUtils.createAuthorityList("ROLE_USER");
+
+    @Param({"1", "1024", "65536"})
+    public int principals;
+
+    @Param({"true", "false"})
+    public boolean saturated;
+
+    private RateLimiter rateLimiter;
+    private String[] names;
+
+    @Setup
+    public void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        // Unsaturated limits never reject, so every call is a successful CAS.
+        Bandwidth bandwidth = saturated ? new Bandwidth(10, 10) : new Bandwidth(Integer.MAX_VALUE, 1e9);
+        properties.getDefaults().setRead(bandwidth);
+        rateLimiter = new RateLimiter(properties, new SimpleMeterRegistry());
+        names = new String[principals];
+        for (int i = 0; i < principals; i++) {
+            names[i] = "user-" + i;
+        }
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        String principal = names[ThreadLocalRandom.current().nextInt(names.length)];
+        return rateLimiter.tryAcquire(principal, USER, false);
+    }
+}
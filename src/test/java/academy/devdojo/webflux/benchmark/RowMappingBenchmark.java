@@ -0,0 +1,95 @@
+package academy.devdojo.webflux.benchmark;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.r2dbc.convert.MappingR2dbcConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.PostgresDialect;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import academy.devdojo.webflux.config.R2dbcConversionsConfig;
+import academy.devdojo.webflux.domain.Anime;
+import academy.devdojo.webflux.domain.DevDojoUser;
+import academy.devdojo.webflux.util.MapRow;
+
+/**
+ * Rows mapped per second by Spring Data R2DBC's reflective entity mapping and by the explicit
+ * converters, plus the cost of {@code getAuthorities()} per security check: the old split on
+ * every call against the set parsed at load time.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowMappingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Mapping {
+
+        @Param({"reflective", "converter"})
+        public String mapping;
+
+        @Param({"anime", "user"})
+        public String entity;
+
+        private MappingR2dbcConverter converter;
+        private Class<?> type;
+        private MapRow row;
+
+        @Setup
+        public void setUp() {
+            List<Object> converters = "converter".equals(mapping) ? R2dbcConversionsConfig.CONVERTERS : List.of();
+            converter = new MappingR2dbcConverter(new R2dbcMappingContext(),
+                    R2dbcCustomConversions.of(PostgresDialect.INSTANCE, converters));
+            if ("anime".equals(entity)) {
+                type = Anime.class;
+                row = MapRow.of("id", 1, "name", "Dragon Ball");
+            } else {
+                type = DevDojoUser.class;
+                row = MapRow.of("id", 1, "name", "Joao", "username", "joao", "password", "{bcrypt}$2a$10$hash",
+                        "authorities", "ROLE_ADMIN,ROLE_USER");
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Authorities {
+
+        private final String raw = "ROLE_ADMIN,ROLE_USER";
+        private final DevDojoUser user = new DevDojoUser(1, "Joao", "joao", "{noop}secret", raw);
+    }
+
+    @Benchmark
+    public Object readRow(Mapping state) {
+        return state.converter.read(state.type, state.row, state.row);
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> authoritiesSplitPerCall(Authorities state) {
+        return Arrays.stream(state.raw.split(","))
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> authoritiesParsedOnLoad(Authorities state) {
+        return state.user.getAuthorities();
+    }
+}
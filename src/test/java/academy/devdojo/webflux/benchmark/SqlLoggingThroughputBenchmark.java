@@ -0,0 +1,118 @@
+package academy.devdojo.webflux.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import academy.devdojo.webflux.logging.NonBlockingAsyncAppender;
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+
+/**
+ * Calls per second a handful of event-loop threads can make while logging each R2DBC statement at
+ * DEBUG, as {@code org.springframework.data.r2dbc} does in the default configuration. The sink is
+ * a flushed file, written directly ({@code sync}), through Logback's lock-based
+ * {@code AsyncAppender} or through {@link NonBlockingAsyncAppender}. The async variants drop events
+ * once their queue fills; the count is printed after each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class SqlLoggingThroughputBenchmark {
+
+    private static final String SQL = "SELECT anime.id, anime.name FROM anime WHERE anime.id = $1";
+
+    @Param({"sync", "logback-async", "non-blocking"})
+    public String appender;
+
+    private LoggerContext loggerContext;
+    private Logger logger;
+    private File file;
+    private Appender<ILoggingEvent> head;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        loggerContext = new LoggerContext();
+        loggerContext.setMDCAdapter(new LogbackMDCAdapter());
+        file = File.createTempFile("sql-logging", ".log");
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern("%d{ISO8601} %-5level [%thread] %logger{40} : %msg%n");
+        encoder.start();
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(loggerContext);
+        fileAppender.setName("FILE");
+        fileAppender.setFile(file.getAbsolutePath());
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+
+        head = switch (appender) {
+            case "sync" -> fileAppender;
+            case "logback-async" -> {
+                AsyncAppender async = new AsyncAppender();
+                async.setContext(loggerContext);
+                async.setName("ASYNC");
+                async.setQueueSize(8192);
+                async.setNeverBlock(true);
+                async.addAppender(fileAppender);
+                async.start();
+                yield async;
+            }
+            default -> {
+                NonBlockingAsyncAppender async = new NonBlockingAsyncAppender();
+                async.setContext(loggerContext);
+                async.setName("ASYNC");
+                async.setCapacity(8192);
+                async.setDiscardLevel(ch.qos.logback.classic.Level.OFF);
+                async.setDiscardingThreshold(0);
+                async.addAppender(fileAppender);
+                async.start();
+                yield async;
+            }
+        };
+        logger = loggerContext.getLogger("org.springframework.r2dbc.core.DefaultDatabaseClient");
+        logger.setLevel(ch.qos.logback.classic.Level.DEBUG);
+        logger.setAdditive(false);
+        logger.addAppender(head);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (head instanceof NonBlockingAsyncAppender async) {
+            System.out.printf("%n%d events dropped%n", async.getOverflowedCount() + async.getDiscardedCount());
+        }
+        loggerContext.stop();
+        file.delete();
+    }
+
+    @Benchmark
+    public void logStatement() {
+        logger.debug("Executing SQL statement [{}]", SQL);
+    }
+}
@@ -0,0 +1,63 @@
+package academy.devdojo.webflux.benchmark;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Wall-clock time for a fresh JVM to start the packaged application up to a refreshed context,
+ * plain, with Spring AOT, and with AOT plus the CDS archive. Run by the {@code fast-startup}
+ * Maven profile, which passes the extracted jar and the archive it recorded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupTimeBenchmark {
+
+    @Param({"plain", "aot", "cds+aot"})
+    public String mode;
+
+    @Param({"target/extracted/spring-webflux-essentials-0.0.1-SNAPSHOT.jar"})
+    public String jar;
+
+    @Param({"target/extracted/application.jsa"})
+    public String archive;
+
+    @Benchmark
+    public int start() throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (mode.startsWith("cds")) {
+            command.add("-XX:SharedArchiveFile=" + archive);
+        }
+        if (mode.endsWith("aot")) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.addAll(List.of("-Dspring.context.exit=onRefresh", "-Dserver.port=0", "-jar", jar));
+
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new IllegalStateException("Application exited with " + exitCode + ": " + command);
+        }
+        return exitCode;
+    }
+}
@@ -0,0 +1,107 @@
+package academy.devdojo.webflux.concurrency;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import academy.devdojo.webflux.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+public class ConcurrencyLimiterTest {
+
+	private final AtomicLong clock = new AtomicLong();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+
+	@Test
+	@DisplayName("tryAcquire sheds normal requests at the limit and lets priority ones use the reserve")
+	public void tryAcquire_ShedsNormalRequests_WhenLimitIsReached() {
+		properties.setInitialLimit(2);
+		properties.setPriorityReserve(1);
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(properties, meterRegistry, clock::get);
+
+		long first = limiter.tryAcquire(false);
+		Assertions.assertTrue(first >= 0);
+		Assertions.assertTrue(limiter.tryAcquire(false) >= 0);
+		Assertions.assertEquals(-1, limiter.tryAcquire(false));
+		Assertions.assertTrue(limiter.tryAcquire(true) >= 0);
+		Assertions.assertEquals(-1, limiter.tryAcquire(true));
+
+		limiter.release(first, false);
+		Assertions.assertEquals(2, limiter.getInFlight());
+		Assertions.assertEquals(1, meterRegistry.get("http.server.concurrency.rejected").tag("lane", "normal")
+				.counter().count());
+		Assertions.assertEquals(1, meterRegistry.get("http.server.concurrency.rejected").tag("lane", "priority")
+				.counter().count());
+	}
+
+	@Test
+	@DisplayName("onSample grows the limit while latency is steady and shrinks it once latency climbs")
+	public void onSample_FollowsLatencyGradient_WhenSaturated() {
+		GradientLimit limit = new GradientLimit(properties);
+		long fast = Duration.ofMillis(10).toNanos();
+		for (int i = 0; i < 50; i++) {
+			limit.onSample(fast, limit.getLimit());
+		}
+		int grown = limit.getLimit();
+		Assertions.assertTrue(grown > properties.getInitialLimit(), "limit should grow, was " + grown);
+
+		for (int i = 0; i < 50; i++) {
+			limit.onSample(fast * 10, limit.getLimit());
+		}
+		Assertions.assertTrue(limit.getLimit() < grown / 2, "limit should shrink, was " + limit.getLimit());
+		Assertions.assertTrue(limit.getLimit() >= properties.getMinLimit());
+
+		int idle = limit.getLimit();
+		limit.onSample(fast, 0);
+		Assertions.assertEquals(idle, limit.getLimit());
+	}
+
+	@Test
+	@DisplayName("filter answers 503 while every slot is taken and skips excluded streaming paths")
+	public void filter_Returns503_WhenNoSlotIsFree() {
+		properties.setInitialLimit(1);
+		properties.setPriorityReserve(0);
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(properties, meterRegistry, clock::get);
+		ConcurrencyLimitWebFilter filter = new ConcurrencyLimitWebFilter(limiter);
+		Sinks.Empty<Void> slow = Sinks.empty();
+
+		MockServerWebExchange holding = MockServerWebExchange.from(MockServerHttpRequest.get("/animes/1"));
+		StepVerifier.create(filter.filter(holding, exchange -> slow.asMono()))
+				.then(() -> {
+					MockServerWebExchange shed = MockServerWebExchange.from(MockServerHttpRequest.get("/animes"));
+					StepVerifier.create(filter.filter(shed, exchange -> Mono.empty())).verifyComplete();
+					Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, shed.getResponse().getStatusCode());
+
+					MockServerWebExchange stream = MockServerWebExchange.from(MockServerHttpRequest.get("/animes/changes"));
+					StepVerifier.create(filter.filter(stream, exchange -> Mono.empty())).verifyComplete();
+					Assertions.assertNull(stream.getResponse().getStatusCode());
+
+					slow.tryEmitEmpty();
+				})
+				.verifyComplete();
+
+		Assertions.assertEquals(0, limiter.getInFlight());
+	}
+
+	@Test
+	@DisplayName("appliesTo matches whole path segments for both the limited and the excluded paths")
+	public void appliesTo_MatchesWholePathSegments() {
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(properties, meterRegistry, clock::get);
+
+		Assertions.assertTrue(limiter.appliesTo("/animes"));
+		Assertions.assertTrue(limiter.appliesTo("/animes/1"));
+		Assertions.assertFalse(limiter.appliesTo("/animesX"));
+		Assertions.assertFalse(limiter.appliesTo("/animes/import/file"));
+		Assertions.assertTrue(limiter.appliesTo("/animes/exports"));
+	}
+}
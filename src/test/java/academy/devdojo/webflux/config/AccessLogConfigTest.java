@@ -0,0 +1,35 @@
+package academy.devdojo.webflux.config;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class AccessLogConfigTest {
+
+	private final List<String> paths = List.of("/animes");
+
+	@Test
+	@DisplayName("matches logs the configured path and everything below it")
+	public void matches_ReturnsTrue_WhenPathIsAtOrBelowPrefix() {
+		Assertions.assertTrue(AccessLogConfig.matches(paths, "/animes"));
+		Assertions.assertTrue(AccessLogConfig.matches(paths, "/animes/1"));
+		Assertions.assertTrue(AccessLogConfig.matches(paths, "/animes/batch"));
+	}
+
+	@Test
+	@DisplayName("matches ignores the query string")
+	public void matches_ReturnsTrue_WhenPathHasQueryString() {
+		Assertions.assertTrue(AccessLogConfig.matches(paths, "/animes?page=2"));
+		Assertions.assertTrue(AccessLogConfig.matches(paths, "/animes/1?fields=name"));
+	}
+
+	@Test
+	@DisplayName("matches skips paths that only share a prefix with a configured path")
+	public void matches_ReturnsFalse_WhenPathOnlySharesPrefix() {
+		Assertions.assertFalse(AccessLogConfig.matches(paths, "/animes-admin"));
+		Assertions.assertFalse(AccessLogConfig.matches(paths, "/animesx?x=/animes/1"));
+		Assertions.assertFalse(AccessLogConfig.matches(paths, "/actuator/health"));
+	}
+}
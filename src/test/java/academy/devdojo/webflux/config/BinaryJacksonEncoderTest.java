@@ -0,0 +1,59 @@
+package academy.devdojo.webflux.config;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+import academy.devdojo.webflux.domain.Anime;
+import academy.devdojo.webflux.util.AnimeCreator;
+import reactor.core.publisher.Flux;
+
+public class BinaryJacksonEncoderTest {
+
+	private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+	private final BinaryJacksonEncoder encoder =
+			new BinaryJacksonEncoder(cborMapper, MediaType.APPLICATION_CBOR, CodecConfig.APPLICATION_CBOR_SEQ);
+	private final List<Anime> animes = List.of(AnimeCreator.createValidAnime(),
+			AnimeCreator.createValidUpdatedAnime().withId(2));
+
+	private byte[] encode(MediaType mediaType) {
+		DataBuffer joined = DataBufferUtils.join(encoder.encode(Flux.fromIterable(animes),
+				DefaultDataBufferFactory.sharedInstance, ResolvableType.forClass(Anime.class), mediaType, Map.of()))
+				.block();
+		byte[] bytes = new byte[joined.readableByteCount()];
+		joined.read(bytes);
+		DataBufferUtils.release(joined);
+		return bytes;
+	}
+
+	@Test
+	@DisplayName("encode writes a single CBOR array when the media type is application/cbor")
+	public void encode_WritesArray_WhenMediaTypeIsCbor() throws IOException {
+		Assertions.assertEquals(animes, cborMapper.readValue(encode(MediaType.APPLICATION_CBOR),
+				new TypeReference<List<Anime>>() {
+				}));
+	}
+
+	@Test
+	@DisplayName("encode writes back-to-back CBOR items when the media type is application/cbor-seq")
+	public void encode_WritesSequence_WhenMediaTypeIsCborSeq() throws IOException {
+		try (MappingIterator<Anime> items = cborMapper.readerFor(Anime.class)
+				.readValues(encode(CodecConfig.APPLICATION_CBOR_SEQ))) {
+			Assertions.assertEquals(animes, items.readAll());
+		}
+	}
+}
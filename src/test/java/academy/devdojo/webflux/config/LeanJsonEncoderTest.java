@@ -0,0 +1,82 @@
+package academy.devdojo.webflux.config;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+import academy.devdojo.webflux.domain.Anime;
+import academy.devdojo.webflux.exception.ErrorAttributesBody;
+import academy.devdojo.webflux.util.AnimeCreator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class LeanJsonEncoderTest {
+
+	private static final ResolvableType ANIME = ResolvableType.forClass(Anime.class);
+
+	private final ObjectMapper reflectiveMapper = new ObjectMapper();
+	private final LeanJsonEncoder encoder = new LeanJsonEncoder(
+			new ObjectMapper().registerModule(new SimpleModule()
+					.addSerializer(new AnimeJsonSerializer())));
+	private final Jackson2JsonEncoder reference = new Jackson2JsonEncoder(reflectiveMapper);
+
+	private static String encode(Encoder<Object> encoder, Publisher<?> input, ResolvableType type) {
+		DataBuffer joined = DataBufferUtils.join(encoder.encode(input, DefaultDataBufferFactory.sharedInstance, type,
+				MediaType.APPLICATION_JSON, Map.of())).block();
+		String value = joined.toString(StandardCharsets.UTF_8);
+		DataBufferUtils.release(joined);
+		return value;
+	}
+
+	private void assertSameAsReference(Publisher<?> input, ResolvableType type) {
+		Assertions.assertEquals(encode(reference, input, type), encode(encoder, input, type));
+	}
+
+	@Test
+	@DisplayName("encode writes an anime exactly like the reflective Jackson encoder")
+	public void encode_MatchesReference_WhenValueIsAnime() {
+		assertSameAsReference(Mono.just(AnimeCreator.createValidAnime()), ANIME);
+		assertSameAsReference(Mono.just(AnimeCreator.createAnimeToBeSaved().withName("Tōkyō \"Ghoul\"")), ANIME);
+	}
+
+	@Test
+	@DisplayName("encode writes a flux of animes as a JSON array, including the empty one")
+	public void encode_WritesArray_WhenInputIsFlux() {
+		assertSameAsReference(Flux.just(AnimeCreator.createValidAnime(), AnimeCreator.createValidUpdatedAnime()), ANIME);
+		assertSameAsReference(Flux.empty(), ANIME);
+	}
+
+	@Test
+	@DisplayName("encode writes error attribute maps exactly like the reflective Jackson encoder")
+	public void encode_MatchesReference_WhenValueIsMap() {
+		Map<String, Object> error = new LinkedHashMap<>();
+		error.put("status", 404);
+		error.put("error", "Not Found");
+		error.put("message", "404 NOT_FOUND \"Anime not found\"");
+		assertSameAsReference(Mono.just(new ErrorAttributesBody(error)), ResolvableType.forClass(ErrorAttributesBody.class));
+	}
+
+	@Test
+	@DisplayName("canEncode leaves other types and media types to the regular encoders")
+	public void canEncode_ReturnsFalse_WhenTypeOrMediaTypeIsNotHandled() {
+		Assertions.assertTrue(encoder.canEncode(ANIME, null));
+		Assertions.assertFalse(encoder.canEncode(ResolvableType.forClass(String.class), MediaType.APPLICATION_JSON));
+		Assertions.assertFalse(encoder.canEncode(ResolvableType.forClass(LinkedHashMap.class), MediaType.APPLICATION_JSON));
+		Assertions.assertFalse(encoder.canEncode(ANIME, MediaType.APPLICATION_NDJSON));
+	}
+}
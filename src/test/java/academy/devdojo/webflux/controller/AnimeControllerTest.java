@@ -5,7 +5,6 @@ import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Assertions;
-import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,8 +17,8 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import academy.devdojo.webflux.domain.Anime;
 import academy.devdojo.webflux.service.AnimeService;
+import academy.devdojo.webflux.service.IdempotencyService;
 import academy.devdojo.webflux.util.AnimeCreator;
-import reactor.blockhound.BlockHound;
 import reactor.blockhound.BlockingOperationError;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -35,15 +34,17 @@ public class AnimeControllerTest {
     @Mock
     private AnimeService animeServiceMock;
 
-    private final Anime anime = AnimeCreator.createValidAnime();
+    @Mock
+    private IdempotencyService idempotencyServiceMock;
 
-    @BeforeAll
-    public static void blockHoudSetup() {
-        BlockHound.install();
-    }
+    private final Anime anime = AnimeCreator.createValidAnime();
 
     @BeforeEach
     public void setUp() {
+        BDDMockito.when(idempotencyServiceMock.execute(ArgumentMatchers.nullable(String.class),
+                ArgumentMatchers.anyString(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> invocation.getArgument(4));
+
         BDDMockito.when(animeServiceMock.findAll())
                 .thenReturn(Flux.just(anime));
 
@@ -103,7 +104,7 @@ public class AnimeControllerTest {
     public void save_CreatesAnime_WhenSuccessful() {
         Anime animeToBeSaved = AnimeCreator.createAnimeToBeSaved();
 
-        StepVerifier.create(animeController.save(animeToBeSaved))
+        StepVerifier.create(animeController.save(animeToBeSaved, null))
                 .expectSubscription()
                 .expectNext(anime)
                 .verifyComplete();
@@ -114,7 +115,7 @@ public class AnimeControllerTest {
     public void saveBatch_CreatesListOfAnime_WhenSuccessful() {
         Anime animeToBeSaved = AnimeCreator.createAnimeToBeSaved();
 
-        StepVerifier.create(animeController.saveBatch(List.of(animeToBeSaved, animeToBeSaved)))
+        StepVerifier.create(animeController.saveBatch(List.of(animeToBeSaved, animeToBeSaved), null))
                 .expectSubscription()
                 .expectNext(anime, anime)
                 .verifyComplete();
@@ -0,0 +1,47 @@
+package academy.devdojo.webflux.diagnostics;
+
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import academy.devdojo.webflux.config.DiagnosticsProperties;
+import academy.devdojo.webflux.diagnostics.BlockingCallRecorder.BlockingCallSample;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.blockhound.BlockingMethod;
+
+public class BlockingCallRecorderTest {
+
+	private static final BlockingMethod SLEEP = new BlockingMethod("java.lang.Thread", "sleep",
+			Modifier.PUBLIC | Modifier.STATIC);
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final DiagnosticsProperties properties = new DiagnosticsProperties();
+
+	@Test
+	@DisplayName("record counts every blocking call and samples the first and every n-th with its origin")
+	public void record_CountsAndSamples_WhenBlockingCallIsReported() {
+		properties.setSampleEvery(2);
+		properties.setRecentSamples(2);
+		BlockingCallRecorder recorder = new BlockingCallRecorder(properties, meterRegistry);
+
+		for (int i = 0; i < 5; i++) {
+			recorder.record(SLEEP);
+		}
+
+		Assertions.assertEquals(5, meterRegistry.get("reactor.blocking.calls")
+				.tags("method", "java.lang.Thread.sleep", "endpoint", CurrentExchange.UNKNOWN).counter().count());
+
+		List<BlockingCallSample> samples = recorder.recentSamples();
+		Assertions.assertEquals(2, samples.size());
+		BlockingCallSample latest = samples.get(0);
+		Assertions.assertEquals("java.lang.Thread.sleep", latest.method());
+		Assertions.assertTrue(latest.origin().startsWith(BlockingCallRecorderTest.class.getName()
+				+ ".record_CountsAndSamples_WhenBlockingCallIsReported"), latest.origin());
+		Assertions.assertEquals(latest.origin(), latest.stack().get(0));
+		Assertions.assertEquals(3, meterRegistry.get("reactor.blocking.samples")
+				.tags("origin", latest.origin()).counter().count());
+	}
+}
@@ -0,0 +1,33 @@
+package academy.devdojo.webflux.exception;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.error.ErrorAttributeOptions;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.ServerRequest;
+
+public class CustomAttributesTest {
+
+	private final CustomAttributes customAttributes = new CustomAttributes();
+
+	@Test
+	@DisplayName("getErrorAttributes returns an error body holding the domain status and message")
+	public void getErrorAttributes_ReturnsErrorBody_WhenErrorIsDomainException() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/animes/1"));
+		customAttributes.storeErrorInformation(DomainException.ANIME_NOT_FOUND, exchange);
+		ServerRequest request = ServerRequest.create(exchange, HandlerStrategies.withDefaults().messageReaders());
+
+		Map<String, Object> attributes = customAttributes.getErrorAttributes(request, ErrorAttributeOptions.defaults());
+
+		Assertions.assertInstanceOf(ErrorAttributesBody.class, attributes);
+		Assertions.assertEquals(404, attributes.get("status"));
+		Assertions.assertEquals("Not Found", attributes.get("error"));
+		Assertions.assertEquals(CustomAttributes.DEVELOPER_MESSAGE, attributes.get("developerMessage"));
+		Assertions.assertEquals("/animes/1", attributes.get("path"));
+	}
+}
@@ -0,0 +1,84 @@
+package academy.devdojo.webflux.exception;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+public class DomainExceptionHandlerTest {
+
+	private final DomainExceptionHandler handler = new DomainExceptionHandler();
+
+	@Test
+	@DisplayName("handle writes the error body without a stack trace when the error is a DomainException")
+	public void handle_WritesPreEncodedBody_WhenErrorIsDomainException() throws Exception {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/animes/1"));
+
+		StepVerifier.create(handler.handle(exchange, DomainException.ANIME_NOT_FOUND))
+				.verifyComplete();
+
+		Assertions.assertEquals(HttpStatus.NOT_FOUND, exchange.getResponse().getStatusCode());
+		Assertions.assertEquals(MediaType.APPLICATION_JSON, exchange.getResponse().getHeaders().getContentType());
+		Map<String, Object> body = new ObjectMapper().readValue(exchange.getResponse().getBodyAsString().block(),
+				new TypeReference<Map<String, Object>>() {
+				});
+		Assertions.assertEquals("/animes/1", body.get("path"));
+		Assertions.assertEquals(exchange.getRequest().getId(), body.get("requestId"));
+		Assertions.assertEquals(404, body.get("status"));
+		Assertions.assertEquals("Not Found", body.get("error"));
+		Assertions.assertEquals("404 NOT_FOUND \"Anime not found\"", body.get("message"));
+		Assertions.assertEquals("A ResponseStatusException was thrown", body.get("developerMessage"));
+		Assertions.assertNotNull(body.get("timestamp"));
+	}
+
+	@Test
+	@DisplayName("handle leaves the error to the next handler when trace=true is requested")
+	public void handle_PassesErrorOn_WhenTraceIsRequested() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/animes/1?trace=true"));
+
+		StepVerifier.create(handler.handle(exchange, DomainException.ANIME_NOT_FOUND))
+				.expectErrorMatches(error -> error == DomainException.ANIME_NOT_FOUND)
+				.verify();
+
+		MockServerWebExchange notTraced = MockServerWebExchange.from(
+				MockServerHttpRequest.get("/animes/1?stacktrace=true"));
+		StepVerifier.create(handler.handle(notTraced, DomainException.ANIME_NOT_FOUND))
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("mono raises the shared stackless instance unless the trace flag is in the context")
+	public void mono_RaisesTracedCopy_WhenTraceFlagIsInContext() {
+		DomainException shared = DomainException.ANIME_NOT_FOUND;
+		shared.addSuppressed(new IllegalStateException());
+
+		Assertions.assertEquals(0, shared.getStackTrace().length);
+		Assertions.assertEquals(0, shared.getSuppressed().length);
+
+		StepVerifier.create(shared.mono())
+				.expectErrorMatches(error -> error == shared)
+				.verify();
+
+		StepVerifier.create(shared.mono().contextWrite(context -> context.put(ErrorTraceWebFilter.TRACE_CONTEXT_KEY, true)))
+				.expectErrorMatches(error -> error != shared
+						&& error instanceof DomainException traced
+						&& traced.getStatus() == HttpStatus.NOT_FOUND
+						&& traced.getStackTrace().length > 0)
+				.verify();
+
+		StepVerifier.create(Mono.error(new DomainException(HttpStatus.BAD_REQUEST, "Invalid")))
+				.expectErrorMessage("400 BAD_REQUEST \"Invalid\"")
+				.verify();
+	}
+}
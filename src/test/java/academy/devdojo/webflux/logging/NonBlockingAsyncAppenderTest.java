@@ -0,0 +1,177 @@
+package academy.devdojo.webflux.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class NonBlockingAsyncAppenderTest {
+
+	private final LoggerContext loggerContext = new LoggerContext();
+	private final Logger logger = loggerContext.getLogger(NonBlockingAsyncAppenderTest.class);
+	private final NonBlockingAsyncAppender appender = new NonBlockingAsyncAppender();
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@BeforeEach
+	public void setUp() {
+		loggerContext.setMDCAdapter(new LogbackMDCAdapter());
+		appender.setContext(loggerContext);
+		appender.setName("ASYNC");
+	}
+
+	@AfterEach
+	public void tearDown() {
+		release.countDown();
+		appender.stop();
+	}
+
+	private LoggingEvent event(Level level, String message) {
+		return new LoggingEvent(Logger.FQCN, logger, level, message, null, null);
+	}
+
+	/**
+	 * Holds the worker on the first event, so later ones stay queued.
+	 */
+	private void attachStalledAppender() {
+		AppenderBase<ILoggingEvent> stalled = new AppenderBase<>() {
+			@Override
+			protected void append(ILoggingEvent event) {
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+		stalled.setContext(loggerContext);
+		stalled.start();
+		appender.addAppender(stalled);
+	}
+
+	private void awaitQueued(int expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (appender.getQueuedCount() != expected && System.nanoTime() < deadline) {
+			Thread.sleep(1);
+		}
+	}
+
+	@Test
+	@DisplayName("doAppend hands every event to the attached appenders, and stop flushes what is queued")
+	public void doAppend_DeliversEvents_WhenQueueHasRoom() {
+		ListAppender<ILoggingEvent> list = new ListAppender<>();
+		list.setContext(loggerContext);
+		list.start();
+		appender.addAppender(list);
+		appender.start();
+
+		for (int i = 0; i < 100; i++) {
+			appender.doAppend(event(Level.DEBUG, "event " + i));
+		}
+		appender.stop();
+
+		Assertions.assertEquals(100, list.list.size());
+		Assertions.assertEquals("event 99", list.list.get(99).getMessage());
+		Assertions.assertEquals(0, appender.getDiscardedCount() + appender.getOverflowedCount());
+	}
+
+	@Test
+	@DisplayName("doAppend drops events at or below discardLevel near capacity but keeps warnings")
+	public void doAppend_DiscardsLowLevelEvents_WhenQueueIsNearlyFull() throws InterruptedException {
+		appender.setCapacity(10);
+		appender.setDiscardingThreshold(5);
+		attachStalledAppender();
+		appender.start();
+
+		appender.doAppend(event(Level.INFO, "taken by the worker"));
+		awaitQueued(0);
+		for (int i = 0; i < 8; i++) {
+			appender.doAppend(event(Level.INFO, "info " + i));
+		}
+		appender.doAppend(event(Level.WARN, "warn"));
+
+		Assertions.assertEquals(3, appender.getDiscardedCount());
+		Assertions.assertEquals(6, appender.getQueuedCount());
+	}
+
+	@Test
+	@DisplayName("doAppend drops and counts events of any level once the queue is full, without waiting")
+	public void doAppend_CountsOverflow_WhenQueueIsFull() throws InterruptedException {
+		appender.setCapacity(4);
+		appender.setDiscardingThreshold(0);
+		attachStalledAppender();
+		appender.start();
+
+		appender.doAppend(event(Level.ERROR, "taken by the worker"));
+		awaitQueued(0);
+		for (int i = 0; i < 6; i++) {
+			appender.doAppend(event(Level.ERROR, "error " + i));
+		}
+
+		Assertions.assertEquals(2, appender.getOverflowedCount());
+		Assertions.assertEquals(4, appender.getQueuedCount());
+	}
+
+	@Test
+	@DisplayName("doAppend accounts for every event from concurrent producers while the ring wraps many times")
+	public void doAppend_DeliversOrCountsEveryEvent_WhenProducersWrapTheRing() throws InterruptedException {
+		ListAppender<ILoggingEvent> list = new ListAppender<>();
+		list.setContext(loggerContext);
+		list.start();
+		appender.addAppender(list);
+		appender.setCapacity(16);
+		appender.setDiscardingThreshold(0);
+		appender.start();
+
+		List<Thread> producers = new ArrayList<>();
+		for (int p = 0; p < 4; p++) {
+			String producer = "producer " + p;
+			producers.add(Thread.ofPlatform().start(() -> {
+				for (int i = 0; i < 5_000; i++) {
+					appender.doAppend(event(Level.INFO, producer));
+				}
+			}));
+		}
+		for (Thread producer : producers) {
+			producer.join();
+		}
+		appender.stop();
+
+		Assertions.assertEquals(20_000, list.list.size() + appender.getOverflowedCount());
+		Assertions.assertTrue(list.list.stream().allMatch(event -> event.getMessage().startsWith("producer ")));
+	}
+
+	@Test
+	@DisplayName("bindTo exports dropped events and queue depth of async appenders attached to loggers")
+	public void bindTo_RegistersMeters_ForAttachedAsyncAppenders() {
+		appender.start();
+		Logger root = ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(Logger.ROOT_LOGGER_NAME);
+		root.addAppender(appender);
+		try {
+			SimpleMeterRegistry registry = new SimpleMeterRegistry();
+			new AsyncAppenderMetrics().bindTo(registry);
+
+			Assertions.assertNotNull(registry.find("logback.async.dropped")
+					.tags("appender", "ASYNC", "reason", "overflow").functionCounter());
+			Assertions.assertNotNull(registry.find("logback.async.queued").tags("appender", "ASYNC").gauge());
+		} finally {
+			root.detachAppender(appender);
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package academy.devdojo.webflux.netty;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.nio.NioEventLoopGroup;
+
+public class EventLoopMetricsTest {
+
+	private final NioEventLoopGroup group = new NioEventLoopGroup(2);
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final EventLoopMetrics metrics = new EventLoopMetrics(Map.of("http", group), Duration.ofMillis(10));
+
+	@AfterEach
+	public void tearDown() {
+		metrics.destroy();
+		group.shutdownGracefully(0, 0, TimeUnit.SECONDS);
+	}
+
+	@Test
+	@DisplayName("bindTo registers a pending-task gauge and a latency timer per loop, tagged with the transport")
+	public void bindTo_RegistersMetersPerLoop() {
+		metrics.bindTo(registry);
+
+		Assertions.assertEquals(2, registry.find("netty.eventloop.pending.tasks").gauges().size());
+		Assertions.assertEquals(2, registry.find("netty.eventloop.task.latency").timers().size());
+		Assertions.assertNotNull(registry.find("netty.eventloop.task.latency")
+				.tags("loop", "http", "executor", "1", "transport", "nio").timer());
+	}
+
+	@Test
+	@DisplayName("probes record how long tasks wait on every loop")
+	public void probes_RecordLatency() throws InterruptedException {
+		metrics.bindTo(registry);
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (registry.find("netty.eventloop.task.latency").timers().stream().anyMatch(timer -> timer.count() == 0)
+				&& System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+
+		for (Timer timer : registry.find("netty.eventloop.task.latency").timers()) {
+			Assertions.assertTrue(timer.count() > 0);
+		}
+	}
+
+	@Test
+	@DisplayName("the pending-task gauge counts tasks queued behind a busy loop")
+	public void pendingTasks_CountsQueuedTasks_WhenLoopIsBusy() throws InterruptedException {
+		metrics.bindTo(registry);
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch started = new CountDownLatch(1);
+		group.next().execute(() -> {
+			started.countDown();
+			// Busy-wait: BlockHound rejects parking, sleeping and even onSpinWait on an event loop
+			long giveUp = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (release.getCount() > 0 && System.nanoTime() < giveUp) {
+				// keep the loop busy
+			}
+		});
+		started.await(5, TimeUnit.SECONDS);
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		double pending = 0;
+		while (pending < 2 && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+			pending = registry.find("netty.eventloop.pending.tasks").gauges().stream()
+					.mapToDouble(Gauge::value).max().orElse(0);
+		}
+		release.countDown();
+
+		Assertions.assertTrue(pending >= 2, "probes should pile up behind the blocked loop");
+	}
+}
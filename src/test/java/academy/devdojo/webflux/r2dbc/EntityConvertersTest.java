@@ -0,0 +1,92 @@
+package academy.devdojo.webflux.r2dbc;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.r2dbc.convert.MappingR2dbcConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.PostgresDialect;
+import org.springframework.data.r2dbc.mapping.OutboundRow;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+import org.springframework.r2dbc.core.Parameter;
+import org.springframework.security.core.GrantedAuthority;
+
+import academy.devdojo.webflux.config.R2dbcConversionsConfig;
+import academy.devdojo.webflux.domain.Anime;
+import academy.devdojo.webflux.domain.DevDojoUser;
+import academy.devdojo.webflux.util.AnimeCreator;
+import academy.devdojo.webflux.util.MapRow;
+
+public class EntityConvertersTest {
+
+	private final MappingR2dbcConverter converter = new MappingR2dbcConverter(new R2dbcMappingContext(),
+			R2dbcCustomConversions.of(PostgresDialect.INSTANCE, R2dbcConversionsConfig.CONVERTERS));
+
+	private MapRow userRow(int id, String authorities) {
+		return MapRow.of("id", id, "name", "User " + id, "username", "user" + id, "password", "{noop}secret",
+				"authorities", authorities);
+	}
+
+	@Test
+	@DisplayName("read maps an anime row through the registered reading converter")
+	public void read_ReturnsAnime_WhenRowIsAnAnime() {
+		MapRow row = MapRow.of("id", 1, "name", "Dragon Ball");
+
+		Assertions.assertEquals(AnimeCreator.createValidAnime(), converter.read(Anime.class, row, row));
+	}
+
+	@Test
+	@DisplayName("write leaves the id empty for a new anime so the database assigns one")
+	@SuppressWarnings("deprecation") // OutboundRow only holds the deprecated Parameter
+	public void write_WritesEmptyId_WhenAnimeIsNew() {
+		OutboundRow row = new OutboundRow();
+		converter.write(AnimeCreator.createAnimeToBeSaved(), row);
+
+		Assertions.assertEquals(Parameter.empty(Integer.class), row.get("id"));
+		Assertions.assertEquals(Parameter.from("Dragon Ball"), row.get("name"));
+	}
+
+	@Test
+	@DisplayName("read parses authorities once and shares the set between users with the same roles")
+	public void read_SharesAuthoritySet_WhenUsersHaveTheSameRoles() {
+		MapRow first = userRow(1, "ROLE_ADMIN,ROLE_USER");
+		MapRow second = userRow(2, "ROLE_ADMIN,ROLE_USER");
+
+		DevDojoUser admin = converter.read(DevDojoUser.class, first, first);
+		DevDojoUser otherAdmin = converter.read(DevDojoUser.class, second, second);
+
+		Assertions.assertEquals(List.of("ROLE_ADMIN", "ROLE_USER"),
+				admin.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+		Assertions.assertSame(admin.getAuthorities(), otherAdmin.getAuthorities());
+		Assertions.assertSame(admin.getAuthorities(), admin.getAuthorities());
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> admin.getAuthorities().clear());
+	}
+
+	@Test
+	@DisplayName("read interns each authority across different role combinations")
+	public void read_InternsAuthorities_WhenRoleCombinationsDiffer() {
+		MapRow adminRow = userRow(1, "ROLE_ADMIN, ROLE_USER");
+		MapRow userRow = userRow(2, "ROLE_USER");
+
+		GrantedAuthority fromAdmin = converter.read(DevDojoUser.class, adminRow, adminRow).getAuthorities().stream()
+				.skip(1).findFirst().orElseThrow();
+		GrantedAuthority fromUser = converter.read(DevDojoUser.class, userRow, userRow).getAuthorities().stream()
+				.findFirst().orElseThrow();
+
+		Assertions.assertEquals("ROLE_USER", fromAdmin.getAuthority());
+		Assertions.assertSame(fromAdmin, fromUser);
+	}
+
+	@Test
+	@DisplayName("write stores the authorities comma-separated")
+	@SuppressWarnings("deprecation") // OutboundRow only holds the deprecated Parameter
+	public void write_JoinsAuthorities_WhenUserHasRoles() {
+		OutboundRow row = new OutboundRow();
+		converter.write(new DevDojoUser(null, "Admin", "admin", "{noop}secret", "ROLE_ADMIN,ROLE_USER"), row);
+
+		Assertions.assertEquals(Parameter.from("ROLE_ADMIN,ROLE_USER"), row.get("authorities"));
+		Assertions.assertEquals(Parameter.empty(Integer.class), row.get("id"));
+	}
+}
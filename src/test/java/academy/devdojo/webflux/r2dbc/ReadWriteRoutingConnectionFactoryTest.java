@@ -0,0 +1,130 @@
+package academy.devdojo.webflux.r2dbc;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import io.r2dbc.spi.ConnectionFactory;
+
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+@ExtendWith(SpringExtension.class)
+public class ReadWriteRoutingConnectionFactoryTest {
+
+	@Mock
+	private ConnectionFactory primaryMock;
+
+	@Mock
+	private ConnectionFactory replicaMock;
+
+	private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+	private ReadWriteRoutingConnectionFactory connectionFactory;
+
+	@BeforeEach
+	public void setUp() {
+		connectionFactory = new ReadWriteRoutingConnectionFactory(primaryMock, List.of(replicaMock),
+				Duration.ofSeconds(2), Duration.ofHours(1), Duration.ofSeconds(1), clock::get);
+		connectionFactory.afterPropertiesSet();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		connectionFactory.destroy();
+	}
+
+	@Test
+	@DisplayName("determineCurrentLookupKey routes operations without the read-only flag to the primary")
+	public void determineCurrentLookupKey_RoutesToPrimary_WhenNotReadOnly() {
+		StepVerifier.create(connectionFactory.determineCurrentLookupKey())
+				.expectNext("primary")
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("determineCurrentLookupKey routes read-only operations to a replica")
+	public void determineCurrentLookupKey_RoutesToReplica_WhenReadOnly() {
+		StepVerifier.create(connectionFactory.determineCurrentLookupKey()
+				.contextWrite(ReadWriteRouting.readOnly()))
+				.expectNext("replica-0")
+				.verifyComplete();
+	}
+
+	private String route(Function<Context, Context> first, Function<Context, Context> second) {
+		return connectionFactory.determineCurrentLookupKey()
+				.contextWrite(first)
+				.contextWrite(second)
+				.cast(String.class)
+				.block();
+	}
+
+	@Test
+	@DisplayName("determineCurrentLookupKey keeps a session's reads on the primary inside its read-your-writes window")
+	public void determineCurrentLookupKey_RoutesToPrimary_WhenReadFollowsWriteOfSameSession() {
+		route(ReadWriteRouting.write(), ReadWriteRouting.session("alice"));
+
+		Assertions.assertEquals("primary", route(ReadWriteRouting.readOnly(), ReadWriteRouting.session("alice")));
+
+		clock.addAndGet(Duration.ofSeconds(3).toNanos());
+
+		Assertions.assertEquals("replica-0", route(ReadWriteRouting.readOnly(), ReadWriteRouting.session("alice")));
+	}
+
+	@Test
+	@DisplayName("determineCurrentLookupKey keeps routing other sessions' reads to replicas after a write")
+	public void determineCurrentLookupKey_RoutesToReplica_WhenWriteWasByAnotherSession() {
+		route(ReadWriteRouting.write(), ReadWriteRouting.session("alice"));
+
+		Assertions.assertEquals("replica-0", route(ReadWriteRouting.readOnly(), ReadWriteRouting.session("bob")));
+		Assertions.assertEquals("replica-0", route(ReadWriteRouting.readOnly(), context -> context));
+	}
+
+	@Test
+	@DisplayName("determineCurrentLookupKey does not start a window for primary operations not flagged as writes")
+	public void determineCurrentLookupKey_DoesNotStartWindow_WhenOperationIsNotAWrite() {
+		Assertions.assertEquals("primary", route(context -> context, ReadWriteRouting.session("alice")));
+
+		Assertions.assertEquals("replica-0", route(ReadWriteRouting.readOnly(), ReadWriteRouting.session("alice")));
+	}
+
+	@Test
+	@DisplayName("forgetExpiredWrites drops sessions whose window has passed")
+	public void forgetExpiredWrites_DropsExpiredSessions() {
+		route(ReadWriteRouting.write(), ReadWriteRouting.session("alice"));
+		clock.addAndGet(Duration.ofSeconds(1).toNanos());
+		route(ReadWriteRouting.write(), ReadWriteRouting.session("bob"));
+		clock.addAndGet(Duration.ofMillis(1500).toNanos());
+
+		connectionFactory.forgetExpiredWrites();
+
+		Assertions.assertEquals(1, connectionFactory.sessionsInReadYourWritesWindow());
+	}
+
+	@Test
+	@DisplayName("determineCurrentLookupKey fails reads over to the primary when no replica is healthy")
+	public void determineCurrentLookupKey_FailsOverToPrimary_WhenReplicaIsUnhealthy() {
+		BDDMockito.doReturn(Mono.error(new IllegalStateException("replica down")))
+				.when(replicaMock).create();
+
+		StepVerifier.create(connectionFactory.checkReplicas())
+				.verifyComplete();
+
+		StepVerifier.create(connectionFactory.determineCurrentLookupKey()
+				.contextWrite(ReadWriteRouting.readOnly()))
+				.expectNext("primary")
+				.verifyComplete();
+	}
+}
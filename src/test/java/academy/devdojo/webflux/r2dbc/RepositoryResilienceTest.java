@@ -0,0 +1,140 @@
+package academy.devdojo.webflux.r2dbc;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.TransientDataAccessResourceException;
+
+import academy.devdojo.webflux.config.RepositoryResilienceProperties;
+import academy.devdojo.webflux.domain.Anime;
+import academy.devdojo.webflux.util.AnimeCreator;
+import academy.devdojo.webflux.util.FaultInjector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.test.StepVerifier;
+
+public class RepositoryResilienceTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final RepositoryResilienceProperties properties = new RepositoryResilienceProperties();
+	private final Anime anime = AnimeCreator.createValidAnime();
+	private RepositoryResilience resilience;
+
+	@BeforeEach
+	public void setUp() {
+		properties.setDefaultTimeout(Duration.ofMillis(200));
+		properties.getRetry().setMinBackoff(Duration.ofMillis(1));
+		properties.getRetry().setMaxBackoff(Duration.ofMillis(5));
+		properties.getHedge().setDelay(Duration.ofMillis(20));
+		resilience = new RepositoryResilience(properties, meterRegistry);
+	}
+
+	private double count(String name) {
+		return meterRegistry.counter(name, "operation", "test").count();
+	}
+
+	@Test
+	@DisplayName("read retries a serialization failure and returns the next attempt's result")
+	public void read_Retries_WhenSqlStateIsRetryable() {
+		FaultInjector faults = new FaultInjector().fail("40001").fail("08006").succeed();
+
+		StepVerifier.create(faults.mono(anime).transform(resilience.read("test")))
+				.expectNext(anime)
+				.verifyComplete();
+
+		Assertions.assertEquals(3, faults.subscriptions());
+		Assertions.assertEquals(2, count("repository.retries"));
+	}
+
+	@Test
+	@DisplayName("read does not retry errors whose SQLSTATE is not listed")
+	public void read_DoesNotRetry_WhenSqlStateIsNotRetryable() {
+		FaultInjector faults = new FaultInjector().fail("23505").succeed();
+
+		StepVerifier.create(faults.mono(anime).transform(resilience.read("test")))
+				.verifyError(TransientDataAccessResourceException.class);
+
+		Assertions.assertEquals(1, faults.subscriptions());
+	}
+
+	@Test
+	@DisplayName("read gives up with the last failure after maxRetries")
+	public void read_ReturnsLastFailure_WhenRetriesAreExhausted() {
+		FaultInjector faults = new FaultInjector().fail("40P01");
+
+		StepVerifier.create(faults.mono(anime).transform(resilience.read("test")))
+				.verifyError(TransientDataAccessResourceException.class);
+
+		Assertions.assertEquals(3, faults.subscriptions());
+	}
+
+	@Test
+	@DisplayName("read fails with a TimeoutException when the query is slower than its timeout")
+	public void read_TimesOut_WhenQueryIsSlow() {
+		properties.getTimeouts().put("test", Duration.ofMillis(30));
+		FaultInjector faults = new FaultInjector().delay(Duration.ofSeconds(5));
+
+		StepVerifier.create(faults.mono(anime).transform(resilience.read("test")))
+				.verifyError(TimeoutException.class);
+
+		Assertions.assertEquals(1, count("repository.timeouts"));
+	}
+
+	@Test
+	@DisplayName("write never retries, even a retryable SQLSTATE")
+	public void write_DoesNotRetry_WhenSqlStateIsRetryable() {
+		FaultInjector faults = new FaultInjector().fail("40001").succeed();
+
+		StepVerifier.create(faults.mono(anime).transform(resilience.write("test")))
+				.verifyError(TransientDataAccessResourceException.class);
+
+		Assertions.assertEquals(1, faults.subscriptions());
+	}
+
+	@Test
+	@DisplayName("readMany retries before the first row but not after rows were emitted")
+	public void readMany_RetriesOnlyBeforeFirstRow() {
+		FaultInjector beforeFirstRow = new FaultInjector().fail("40001").succeed();
+		StepVerifier.create(beforeFirstRow.mono(anime).flux().transform(resilience.readMany("test")))
+				.expectNext(anime)
+				.verifyComplete();
+
+		FaultInjector afterFirstRow = new FaultInjector().fail("40001").succeed();
+		StepVerifier.create(afterFirstRow.flux(anime, anime).transform(resilience.readMany("test")))
+				.expectNext(anime)
+				.verifyError(TransientDataAccessResourceException.class);
+		Assertions.assertEquals(1, afterFirstRow.subscriptions());
+	}
+
+	@Test
+	@DisplayName("hedgedRead answers from a second query when the first one is slow")
+	public void hedgedRead_ReturnsHedgeResult_WhenPrimaryIsSlow() {
+		properties.getHedge().setEnabled(true);
+		FaultInjector faults = new FaultInjector().delay(Duration.ofSeconds(5)).succeed();
+
+		StepVerifier.create(faults.mono(anime).transform(resilience.hedgedRead("test")))
+				.expectNext(anime)
+				.verifyComplete();
+
+		Assertions.assertEquals(2, faults.subscriptions());
+		Assertions.assertEquals(1, count("repository.hedges"));
+		Assertions.assertEquals(1, count("repository.hedges.won"));
+	}
+
+	@Test
+	@DisplayName("hedgedRead sends a single query when the first one answers within the delay")
+	public void hedgedRead_SendsOneQuery_WhenPrimaryIsFast() {
+		properties.getHedge().setEnabled(true);
+		FaultInjector faults = new FaultInjector().succeed();
+
+		StepVerifier.create(faults.mono(anime).transform(resilience.hedgedRead("test")))
+				.expectNext(anime)
+				.verifyComplete();
+
+		Assertions.assertEquals(1, faults.subscriptions());
+		Assertions.assertEquals(0, count("repository.hedges"));
+	}
+}
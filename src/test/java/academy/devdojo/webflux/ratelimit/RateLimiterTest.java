@@ -0,0 +1,135 @@
+package academy.devdojo.webflux.ratelimit;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+
+import academy.devdojo.webflux.config.RateLimitProperties;
+import academy.devdojo.webflux.config.RateLimitProperties.Bandwidth;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+public class RateLimiterTest {
+
+	private static final List<GrantedAuthority> USER = AuthorityUtils.createAuthorityList("ROLE_USER");
+	private static final List<GrantedAuthority> ADMIN = AuthorityUtils.createAuthorityList("ROLE_ADMIN", "ROLE_USER");
+
+	private final AtomicLong clock = new AtomicLong();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final RateLimitProperties properties = new RateLimitProperties();
+	private RateLimiter rateLimiter;
+
+	@BeforeEach
+	public void setUp() {
+		properties.getDefaults().setRead(new Bandwidth(2, 1));
+		properties.getDefaults().setWrite(new Bandwidth(1, 1));
+		RateLimitProperties.Limits admin = new RateLimitProperties.Limits();
+		admin.setRead(new Bandwidth(5, 10));
+		properties.getRoles().put("ADMIN", admin);
+		properties.setIdleTimeout(Duration.ofSeconds(10));
+		rateLimiter = new RateLimiter(properties, meterRegistry, clock::get);
+	}
+
+	private void advance(Duration duration) {
+		clock.addAndGet(duration.toNanos());
+	}
+
+	@Test
+	@DisplayName("tryAcquire allows a burst up to capacity, then waits for the refill")
+	public void tryAcquire_RejectsUntilRefill_WhenBurstIsExhausted() {
+		Assertions.assertEquals(0, rateLimiter.tryAcquire("user", USER, false));
+		Assertions.assertEquals(0, rateLimiter.tryAcquire("user", USER, false));
+		Assertions.assertEquals(TimeUnit.SECONDS.toNanos(1), rateLimiter.tryAcquire("user", USER, false));
+
+		advance(Duration.ofSeconds(1));
+		Assertions.assertEquals(0, rateLimiter.tryAcquire("user", USER, false));
+
+		Assertions.assertEquals(3, meterRegistry.get("http.server.rate.limit.requests")
+				.tags("role", "default", "kind", "read", "outcome", "allowed").counter().count());
+		Assertions.assertEquals(1, meterRegistry.get("http.server.rate.limit.requests")
+				.tags("role", "default", "kind", "read", "outcome", "rejected").counter().count());
+	}
+
+	@Test
+	@DisplayName("tryAcquire keeps separate buckets per principal, method kind and role")
+	public void tryAcquire_UsesSeparateBuckets_WhenPrincipalKindOrRoleDiffers() {
+		Assertions.assertEquals(0, rateLimiter.tryAcquire("user", USER, true));
+		Assertions.assertTrue(rateLimiter.tryAcquire("user", USER, true) > 0);
+		Assertions.assertEquals(0, rateLimiter.tryAcquire("user", USER, false));
+		Assertions.assertEquals(0, rateLimiter.tryAcquire("other", USER, true));
+
+		for (int i = 0; i < 5; i++) {
+			Assertions.assertEquals(0, rateLimiter.tryAcquire("admin", ADMIN, false));
+		}
+		Assertions.assertTrue(rateLimiter.tryAcquire("admin", ADMIN, false) > 0);
+	}
+
+	@Test
+	@DisplayName("evictIdle drops buckets that sat full, and maxBuckets caps memory with a shared bucket")
+	public void evictIdle_RemovesIdleBuckets_AndMaxBucketsIsEnforced() {
+		properties.setMaxBuckets(2);
+		rateLimiter.tryAcquire("a", USER, false);
+		rateLimiter.tryAcquire("b", USER, false);
+		rateLimiter.tryAcquire("c", USER, false);
+		rateLimiter.tryAcquire("d", USER, false);
+		Assertions.assertEquals(2, rateLimiter.bucketCount());
+		// c and d share the overflow bucket, which holds two tokens
+		Assertions.assertTrue(rateLimiter.tryAcquire("e", USER, false) > 0);
+
+		advance(Duration.ofSeconds(5));
+		rateLimiter.evictIdle();
+		Assertions.assertEquals(2, rateLimiter.bucketCount());
+
+		advance(Duration.ofSeconds(10));
+		rateLimiter.evictIdle();
+		Assertions.assertEquals(0, rateLimiter.bucketCount());
+	}
+
+	@Test
+	@DisplayName("filter answers 429 with Retry-After once the caller's bucket is empty")
+	public void filter_Returns429WithRetryAfter_WhenLimitIsExceeded() {
+		RateLimitWebFilter filter = new RateLimitWebFilter(rateLimiter);
+		UsernamePasswordAuthenticationToken user = UsernamePasswordAuthenticationToken.authenticated("user", null, USER);
+
+		MockServerWebExchange exchange = null;
+		for (int i = 0; i < 3; i++) {
+			exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/animes"));
+			StepVerifier.create(filter.filter(exchange, ignored -> Mono.empty())
+					.contextWrite(ReactiveSecurityContextHolder.withAuthentication(user)))
+					.verifyComplete();
+		}
+
+		Assertions.assertEquals(HttpStatus.TOO_MANY_REQUESTS, exchange.getResponse().getStatusCode());
+		Assertions.assertEquals("1", exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+		MockServerWebExchange other = MockServerWebExchange.from(MockServerHttpRequest.get("/actuator/health"));
+		StepVerifier.create(filter.filter(other, ignored -> Mono.empty())
+				.contextWrite(ReactiveSecurityContextHolder.withAuthentication(user)))
+				.verifyComplete();
+		Assertions.assertNull(other.getResponse().getStatusCode());
+	}
+
+	@Test
+	@DisplayName("appliesTo matches a configured path and the paths below it, not paths that only share its prefix")
+	public void appliesTo_MatchesWholePathSegments() {
+		Assertions.assertTrue(rateLimiter.appliesTo("/animes"));
+		Assertions.assertTrue(rateLimiter.appliesTo("/animes/1"));
+		Assertions.assertFalse(rateLimiter.appliesTo("/animesX"));
+		Assertions.assertFalse(rateLimiter.appliesTo("/animes-export"));
+	}
+}
@@ -0,0 +1,58 @@
+package academy.devdojo.webflux.repository;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import academy.devdojo.webflux.domain.IdempotencyRecord;
+
+import reactor.test.StepVerifier;
+
+public class InMemoryIdempotencyStoreTest {
+
+	private static final Duration TTL = Duration.ofMinutes(1);
+
+	private final InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(2, Clock.systemUTC());
+
+	private void claimAndComplete(String key) {
+		store.claim(key, "hash", TTL).then(store.complete(key, "{}", TTL)).block();
+	}
+
+	@Test
+	@DisplayName("complete drops the oldest completed key once max-entries responses are stored")
+	public void complete_EvictsOldestCompletedKey_WhenFull() {
+		claimAndComplete("a");
+		claimAndComplete("b");
+		claimAndComplete("c");
+
+		StepVerifier.create(store.find("a"))
+				.verifyComplete();
+		StepVerifier.create(store.find("c").map(IdempotencyRecord::isCompleted))
+				.expectNext(true)
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("claim keeps in-progress keys and refuses new ones while max-entries are in progress")
+	public void claim_NeverEvictsInProgressKeys_WhenFull() {
+		StepVerifier.create(store.claim("a", "hash", TTL).concatWith(store.claim("b", "hash", TTL)))
+				.expectNext(true, true)
+				.verifyComplete();
+
+		StepVerifier.create(store.claim("c", "hash", TTL))
+				.expectErrorMatches(error -> error instanceof ResponseStatusException e
+						&& e.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE)
+				.verify();
+		StepVerifier.create(store.find("a").map(IdempotencyRecord::getRequestHash))
+				.expectNext("hash")
+				.verifyComplete();
+
+		StepVerifier.create(store.complete("a", "{}", TTL).then(store.claim("c", "hash", TTL)))
+				.expectNext(true)
+				.verifyComplete();
+	}
+}
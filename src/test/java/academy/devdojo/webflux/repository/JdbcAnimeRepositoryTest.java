@@ -0,0 +1,132 @@
+package academy.devdojo.webflux.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import academy.devdojo.webflux.domain.Anime;
+import academy.devdojo.webflux.util.AnimeCreator;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+@ExtendWith(SpringExtension.class)
+public class JdbcAnimeRepositoryTest {
+
+	@Mock
+	private DataSource dataSource;
+
+	@Mock
+	private Connection connection;
+
+	@Mock
+	private PreparedStatement statement;
+
+	@Mock
+	private ResultSet resultSet;
+
+	private final Scheduler scheduler = Schedulers.fromExecutorService(
+			Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("jdbc-", 0).factory()), "jdbc");
+
+	private JdbcAnimeRepository repository;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		repository = new JdbcAnimeRepository(dataSource, scheduler);
+		BDDMockito.when(dataSource.getConnection()).thenReturn(connection);
+		BDDMockito.when(connection.prepareStatement(ArgumentMatchers.anyString())).thenReturn(statement);
+		BDDMockito.when(statement.executeQuery()).thenReturn(resultSet);
+		BDDMockito.when(resultSet.next()).thenReturn(true, false);
+		BDDMockito.when(resultSet.getInt(1)).thenReturn(1);
+		BDDMockito.when(resultSet.getString(2)).thenReturn(AnimeCreator.createValidAnime().getName());
+	}
+
+	@AfterEach
+	public void tearDown() {
+		scheduler.dispose();
+	}
+
+	@Test
+	@DisplayName("findById blocks on a virtual thread, which BlockHound allows when called from a non-blocking one")
+	public void findById_RunsOnVirtualThread_WhenCalledFromNonBlockingThread() throws Exception {
+		AtomicReference<Thread> queriedOn = new AtomicReference<>();
+		BDDMockito.when(statement.executeQuery()).thenAnswer(invocation -> {
+			queriedOn.set(Thread.currentThread());
+			Thread.sleep(1);
+			return resultSet;
+		});
+
+		StepVerifier.create(Mono.defer(() -> repository.findById(1)).subscribeOn(Schedulers.parallel()))
+				.expectNext(AnimeCreator.createValidAnime())
+				.verifyComplete();
+
+		Assertions.assertTrue(queriedOn.get().isVirtual());
+		Mockito.verify(statement).setInt(1, 1);
+		Mockito.verify(connection).close();
+	}
+
+	@Test
+	@DisplayName("saveAll commits once the caller has taken every saved anime")
+	public void saveAll_Commits_WhenEveryRowIsConsumed() throws Exception {
+		BDDMockito.when(resultSet.next()).thenReturn(true);
+
+		StepVerifier.create(repository.saveAll(List.of(AnimeCreator.createAnimeToBeSaved(),
+						AnimeCreator.createAnimeToBeSaved())))
+				.expectNextCount(2)
+				.verifyComplete();
+
+		Mockito.verify(connection).setAutoCommit(false);
+		Mockito.verify(connection).commit();
+		Mockito.verify(connection, Mockito.never()).rollback();
+		Mockito.verify(connection).close();
+	}
+
+	@Test
+	@DisplayName("saveAll rolls back when the caller fails on one of the saved animes")
+	public void saveAll_RollsBack_WhenDownstreamFails() throws Exception {
+		BDDMockito.when(resultSet.next()).thenReturn(true);
+
+		StepVerifier.create(repository.saveAll(List.of(AnimeCreator.createAnimeToBeSaved(), new Anime(null, "")))
+						.doOnNext(anime -> {
+							if (anime.getName().isEmpty()) {
+								throw new IllegalArgumentException("empty name");
+							}
+						}))
+				.expectNextCount(1)
+				.expectError(IllegalArgumentException.class)
+				.verify();
+
+		Mockito.verify(connection, Mockito.timeout(1000)).rollback();
+		Mockito.verify(connection, Mockito.never()).commit();
+		Mockito.verify(connection, Mockito.timeout(1000)).close();
+	}
+
+	@Test
+	@DisplayName("save returns TransientDataAccessResourceException when the anime to update does not exist")
+	public void save_ReturnsError_WhenUpdatedRowDoesNotExist() throws Exception {
+		BDDMockito.when(statement.executeUpdate()).thenReturn(0);
+
+		StepVerifier.create(repository.save(AnimeCreator.createValidAnime()))
+				.expectError(TransientDataAccessResourceException.class)
+				.verify();
+	}
+}
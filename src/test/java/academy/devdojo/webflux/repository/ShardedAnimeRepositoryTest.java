@@ -0,0 +1,202 @@
+package academy.devdojo.webflux.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.reactivestreams.Publisher;
+
+import academy.devdojo.webflux.domain.Anime;
+import academy.devdojo.webflux.sharding.BlockIdGenerator;
+import academy.devdojo.webflux.sharding.RangeShardingStrategy;
+import academy.devdojo.webflux.util.MapRow;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Statement;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+public class ShardedAnimeRepositoryTest {
+
+	private final Shard shard0 = new Shard(List.of(MapRow.of("id", 1, "name", "A"), MapRow.of("id", 4, "name", "D"),
+			MapRow.of("id", 7, "name", "G")));
+	private final Shard shard1 = new Shard(List.of(MapRow.of("id", 102, "name", "B"),
+			MapRow.of("id", 103, "name", "C"), MapRow.of("id", 109, "name", "I")));
+
+	private ShardedAnimeRepository repository;
+
+	@BeforeEach
+	public void setUp() {
+		// Ids below 100 live on shard 0, the rest on shard 1; new ids start at 1.
+		repository = new ShardedAnimeRepository(List.of(shard0.connectionFactory, shard1.connectionFactory),
+				new RangeShardingStrategy(List.of(100), 2),
+				new BlockIdGenerator(() -> Mono.just(0L), 1000), 2);
+	}
+
+	private List<Anime> batchOverBothShards() {
+		return List.of(new Anime(null, "new"), new Anime(5, "five"), new Anime(150, "one fifty"));
+	}
+
+	@Test
+	@DisplayName("findAll merges the shards' rows into one stream ordered by id")
+	public void findAll_MergesShardsInIdOrder() {
+		StepVerifier.create(repository.findAll().map(Anime::getId))
+				.expectNext(1, 4, 7, 102, 103, 109)
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("findAll interleaves shards whose id ranges overlap")
+	public void findAll_InterleavesOverlappingShards() {
+		Shard left = new Shard(List.of(MapRow.of("id", 1, "name", "A"), MapRow.of("id", 4, "name", "D")));
+		Shard right = new Shard(List.of(MapRow.of("id", 2, "name", "B"), MapRow.of("id", 3, "name", "C"),
+				MapRow.of("id", 9, "name", "I")));
+		ShardedAnimeRepository interleaved = new ShardedAnimeRepository(
+				List.of(left.connectionFactory, right.connectionFactory), new RangeShardingStrategy(List.of(100), 2),
+				new BlockIdGenerator(() -> Mono.just(0L), 1000), 1);
+
+		StepVerifier.create(interleaved.findAll().map(Anime::getId))
+				.expectNext(1, 2, 3, 4, 9)
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("saveAll commits every shard's transaction once the caller has taken every row")
+	public void saveAll_CommitsEveryShard_WhenAllRowsAreConsumed() {
+		StepVerifier.create(repository.saveAll(batchOverBothShards()).map(Anime::getId))
+				.expectNext(1, 5, 150)
+				.verifyComplete();
+
+		for (Shard shard : List.of(shard0, shard1)) {
+			Mockito.verify(shard.connection).beginTransaction();
+			Mockito.verify(shard.connection).commitTransaction();
+			Mockito.verify(shard.connection, Mockito.never()).rollbackTransaction();
+			Mockito.verify(shard.connection).close();
+		}
+	}
+
+	@Test
+	@DisplayName("saveAll rolls every shard back when the caller fails on a saved row")
+	public void saveAll_RollsBackEveryShard_WhenDownstreamFails() {
+		StepVerifier.create(repository.saveAll(batchOverBothShards())
+						.doOnNext(anime -> {
+							if (anime.getId() == 5) {
+								throw new IllegalArgumentException("rejected");
+							}
+						}))
+				.expectNextCount(1)
+				.expectError(IllegalArgumentException.class)
+				.verify();
+
+		assertRolledBack();
+	}
+
+	@Test
+	@DisplayName("saveAll rolls every shard back when the caller cancels before taking every row")
+	public void saveAll_RollsBackEveryShard_WhenCancelled() {
+		StepVerifier.create(repository.saveAll(batchOverBothShards()).take(1))
+				.expectNextCount(1)
+				.verifyComplete();
+
+		assertRolledBack();
+	}
+
+	@Test
+	@DisplayName("saveAll rolls every shard back when one shard's write fails")
+	public void saveAll_RollsBackEveryShard_WhenAShardFails() {
+		shard1.rowsUpdated = 0;
+
+		StepVerifier.create(repository.saveAll(batchOverBothShards()))
+				.expectError()
+				.verify();
+
+		assertRolledBack();
+	}
+
+	private void assertRolledBack() {
+		for (Shard shard : List.of(shard0, shard1)) {
+			Mockito.verify(shard.connection).rollbackTransaction();
+			Mockito.verify(shard.connection, Mockito.never()).commitTransaction();
+			Mockito.verify(shard.connection).close();
+		}
+	}
+
+	/**
+	 * A mocked database answering SELECTs with {@code rows} and any other statement with
+	 * {@code rowsUpdated}.
+	 */
+	private static final class Shard {
+
+		private final ConnectionFactory connectionFactory = Mockito.mock(ConnectionFactory.class);
+		private final Connection connection = Mockito.mock(Connection.class);
+		private final List<MapRow> rows;
+		private long rowsUpdated = 1;
+
+		private Shard(List<MapRow> rows) {
+			this.rows = rows;
+			ConnectionFactoryMetadata metadata = () -> "PostgreSQL";
+			BDDMockito.given(connectionFactory.getMetadata()).willReturn(metadata);
+			BDDMockito.willAnswer(invocation -> Mono.just(connection)).given(connectionFactory).create();
+			BDDMockito.willAnswer(invocation -> Mono.empty()).given(connection).beginTransaction();
+			BDDMockito.willAnswer(invocation -> Mono.empty()).given(connection).commitTransaction();
+			BDDMockito.willAnswer(invocation -> Mono.empty()).given(connection).rollbackTransaction();
+			BDDMockito.willAnswer(invocation -> Mono.empty()).given(connection).close();
+			BDDMockito.given(connection.createStatement(ArgumentMatchers.anyString()))
+					.willAnswer(invocation -> statement(invocation.getArgument(0)));
+		}
+
+		private Statement statement(String sql) {
+			Statement statement = Mockito.mock(Statement.class, Mockito.RETURNS_SELF);
+			BDDMockito.willAnswer(invocation -> Flux.just(sql.startsWith("SELECT")
+					? new FakeResult(rows, 0)
+					: new FakeResult(List.of(), rowsUpdated))).given(statement).execute();
+			return statement;
+		}
+	}
+
+	private record FakeResult(List<MapRow> rows, long rowsUpdated) implements Result {
+
+		@Override
+		public Publisher<Long> getRowsUpdated() {
+			return Mono.just(rowsUpdated);
+		}
+
+		@Override
+		public <T> Publisher<T> map(BiFunction<Row, RowMetadata, ? extends T> mappingFunction) {
+			return Flux.fromIterable(rows).map(row -> mappingFunction.apply(row, row));
+		}
+
+		@Override
+		public <T> Publisher<T> map(Function<? super Readable, ? extends T> mappingFunction) {
+			return Flux.fromIterable(rows).map(mappingFunction);
+		}
+
+		@Override
+		public Result filter(Predicate<Segment> filter) {
+			return this;
+		}
+
+		@Override
+		public <T> Publisher<T> flatMap(Function<Segment, ? extends Publisher<? extends T>> mappingFunction) {
+			Flux<Segment> segments = rows.isEmpty()
+					? Flux.just((UpdateCount) () -> rowsUpdated)
+					: Flux.fromIterable(rows).map(row -> (RowSegment) () -> row);
+			return segments.concatMap(mappingFunction);
+		}
+	}
+}
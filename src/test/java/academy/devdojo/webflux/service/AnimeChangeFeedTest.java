@@ -0,0 +1,89 @@
+package academy.devdojo.webflux.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import academy.devdojo.webflux.config.AnimeChangeFeedProperties;
+import academy.devdojo.webflux.config.AnimeChangeFeedProperties.OverflowPolicy;
+import academy.devdojo.webflux.domain.Anime;
+import academy.devdojo.webflux.domain.AnimeChangeEvent;
+import academy.devdojo.webflux.domain.AnimeChangeEvent.Type;
+import academy.devdojo.webflux.util.AnimeCreator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import reactor.test.StepVerifier;
+
+public class AnimeChangeFeedTest {
+
+	private final Anime anime = AnimeCreator.createValidAnime();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private AnimeChangeFeed createFeed(int bufferSize, OverflowPolicy overflow) {
+		AnimeChangeFeedProperties properties = new AnimeChangeFeedProperties();
+		properties.setBufferSize(bufferSize);
+		properties.setReplaySize(16);
+		properties.setOverflow(overflow);
+		return new AnimeChangeFeed(properties, meterRegistry);
+	}
+
+	@Test
+	@DisplayName("subscribe streams changes published after subscribing")
+	public void subscribe_StreamsNewChanges_WhenSuccessful() {
+		AnimeChangeFeed feed = createFeed(16, OverflowPolicy.DROP);
+		feed.publish(Type.CREATED, anime);
+
+		StepVerifier.create(feed.subscribe(null).map(AnimeChangeEvent::getId))
+				.expectSubscription()
+				.then(() -> feed.publish(Type.UPDATED, anime))
+				.expectNext(2L)
+				.thenCancel()
+				.verify();
+	}
+
+	@Test
+	@DisplayName("subscribe replays changes made after the last event id before live ones")
+	public void subscribe_ReplaysMissedChanges_WhenLastEventIdIsGiven() {
+		AnimeChangeFeed feed = createFeed(16, OverflowPolicy.DROP);
+		feed.publish(Type.CREATED, anime);
+		feed.publish(Type.UPDATED, anime);
+		feed.publish(Type.DELETED, anime);
+
+		StepVerifier.create(feed.subscribe(1L).map(AnimeChangeEvent::getId))
+				.expectSubscription()
+				.expectNext(2L, 3L)
+				.then(() -> feed.publish(Type.CREATED, anime))
+				.expectNext(4L)
+				.thenCancel()
+				.verify();
+	}
+
+	@Test
+	@DisplayName("subscribe ends the stream of a slow subscriber when the overflow policy is DISCONNECT")
+	public void subscribe_Disconnects_WhenBufferOverflows() {
+		AnimeChangeFeed feed = createFeed(2, OverflowPolicy.DISCONNECT);
+
+		StepVerifier.create(feed.subscribe(null).map(AnimeChangeEvent::getId), 0)
+				.expectSubscription()
+				.then(() -> {
+					for (int i = 0; i < 64; i++) {
+						feed.publish(Type.CREATED, anime);
+					}
+				})
+				.then(() -> awaitDisconnect()) // fan-out runs on its own thread
+				.thenRequest(Long.MAX_VALUE)
+				.expectNextCount(3) // the buffer plus the event already handed to the subscriber
+				.verifyComplete();
+
+		Assertions.assertEquals(1, meterRegistry.get("anime.changes.disconnected").counter().count());
+	}
+
+	private void awaitDisconnect() {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (meterRegistry.get("anime.changes.disconnected").counter().count() < 1 && System.nanoTime() < deadline) {
+			Thread.onSpinWait();
+		}
+	}
+}
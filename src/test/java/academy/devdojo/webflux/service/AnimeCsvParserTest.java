@@ -0,0 +1,40 @@
+package academy.devdojo.webflux.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import academy.devdojo.webflux.domain.Anime;
+
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+public class AnimeCsvParserTest {
+
+	private final AnimeCsvParser parser = new AnimeCsvParser(List.of("id", "name"));
+
+	private static Flux<DataBuffer> body(String... chunks) {
+		return Flux.fromArray(chunks)
+				.map(chunk -> DefaultDataBufferFactory.sharedInstance.wrap(chunk.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	@Test
+	@DisplayName("parse reads rows split across buffers and skips the header")
+	public void parse_ReadsRows_WhenRowsAreSplitAcrossBuffers() {
+		StepVerifier.create(parser.parse(body("id,name\n1,Dragon", " Ball\r\n2,Naruto\n"), true))
+				.expectNext(new Anime(1, "Dragon Ball"), new Anime(2, "Naruto"))
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("parse reads quoted fields with commas, quotes and line breaks")
+	public void parse_ReadsQuotedFields_WhenFieldsAreQuoted() {
+		StepVerifier.create(parser.parse(body("3,\"Cowboy Bebop, \"\"Session\"\"\n1\"\n"), false))
+				.expectNext(new Anime(3, "Cowboy Bebop, \"Session\"\n1"))
+				.verifyComplete();
+	}
+}
@@ -0,0 +1,78 @@
+package academy.devdojo.webflux.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import academy.devdojo.webflux.domain.Anime;
+import academy.devdojo.webflux.util.AnimeCreator;
+
+public class AnimeExportEncoderTest {
+
+	private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+	private final AnimeExportEncoder encoder = new AnimeExportEncoder(new ObjectMapper());
+	private final Anime anime = AnimeCreator.createValidAnime();
+
+	private static String read(DataBuffer buffer) {
+		String value = buffer.toString(StandardCharsets.UTF_8);
+		DataBufferUtils.release(buffer);
+		return value;
+	}
+
+	@Test
+	@DisplayName("encode writes a CSV row per anime and quotes names with separators")
+	public void encode_WritesCsvRows_WhenFormatIsCsv() {
+		List<Anime> animes = List.of(anime, anime.withId(2).withName("Cowboy Bebop, \"Session\" 1"));
+
+		Assertions.assertEquals("id,name\n", read(encoder.header(AnimeExportFormat.CSV, bufferFactory)));
+		Assertions.assertEquals("1,Dragon Ball\n2,\"Cowboy Bebop, \"\"Session\"\" 1\"\n",
+				read(encoder.encode(animes, AnimeExportFormat.CSV, bufferFactory)));
+	}
+
+	@Test
+	@DisplayName("encode writes a JSON document per line when format is NDJSON")
+	public void encode_WritesJsonLines_WhenFormatIsNdjson() {
+		Assertions.assertEquals("{\"id\":1,\"name\":\"Dragon Ball\"}\n{\"id\":1,\"name\":\"Dragon Ball\"}\n",
+				read(encoder.encode(List.of(anime, anime), AnimeExportFormat.NDJSON, bufferFactory)));
+	}
+
+	@Test
+	@DisplayName("compress produces a gzip stream that decompresses to the original chunks")
+	public void compress_ProducesValidGzip_WhenChunksAreCompressed() throws IOException {
+		GzipDataBufferCompressor compressor = new GzipDataBufferCompressor(bufferFactory, Deflater.BEST_SPEED);
+		StringBuilder expected = new StringBuilder();
+		DataBuffer compressed = bufferFactory.allocateBuffer(256);
+		try {
+			for (int i = 0; i < 50; i++) {
+				DataBuffer chunk = encoder.encode(List.of(anime.withId(i)), AnimeExportFormat.CSV, bufferFactory);
+				expected.append(chunk.toString(StandardCharsets.UTF_8));
+				DataBuffer output = compressor.compress(chunk);
+				compressed.write(output);
+				DataBufferUtils.release(output);
+			}
+			DataBuffer trailer = compressor.finish();
+			compressed.write(trailer);
+			DataBufferUtils.release(trailer);
+		} finally {
+			compressor.end();
+		}
+
+		byte[] bytes = new byte[compressed.readableByteCount()];
+		compressed.read(bytes);
+		try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+			Assertions.assertEquals(expected.toString(), new String(gzip.readAllBytes(), StandardCharsets.UTF_8));
+		}
+	}
+}
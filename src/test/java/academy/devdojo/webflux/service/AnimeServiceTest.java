@@ -5,7 +5,6 @@ import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Assertions;
-import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,15 +13,27 @@ import org.mockito.BDDMockito;
 import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
 
 import org.springframework.test.context.junit.jupiter.SpringExtension;
-import org.springframework.web.server.ResponseStatusException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.AbstractReactiveTransactionManager;
+import org.springframework.transaction.reactive.GenericReactiveTransaction;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
 
+import academy.devdojo.webflux.config.RepositoryResilienceProperties;
 import academy.devdojo.webflux.domain.Anime;
+import academy.devdojo.webflux.domain.AnimeChangeEvent;
+import academy.devdojo.webflux.exception.DomainException;
+import academy.devdojo.webflux.exception.ErrorTraceWebFilter;
+import academy.devdojo.webflux.r2dbc.RepositoryResilience;
 import academy.devdojo.webflux.repository.AnimeRepository;
 import academy.devdojo.webflux.util.AnimeCreator;
+import academy.devdojo.webflux.util.FaultInjector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
-import reactor.blockhound.BlockHound;
 import reactor.blockhound.BlockingOperationError;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -38,12 +49,17 @@ public class AnimeServiceTest {
 	@Mock
 	private AnimeRepository animeRepositoryMock;
 
-	private final Anime anime = AnimeCreator.createValidAnime();
+	@Mock
+	private AnimeWriteCoalescer animeWriteCoalescerMock;
 
-	@BeforeAll
-	public static void blockHoudSetup() {
-		BlockHound.install();
-	}
+	@Mock
+	private AnimeChangeFeed animeChangeFeedMock;
+
+	@Spy
+	private RepositoryResilience resilience = new RepositoryResilience(new RepositoryResilienceProperties(),
+			new SimpleMeterRegistry());
+
+	private final Anime anime = AnimeCreator.createValidAnime();
 
 	@BeforeEach
 	public void setUp() {
@@ -109,10 +125,25 @@ public class AnimeServiceTest {
 
 		StepVerifier.create(animeService.findById(2))
 				.expectSubscription()
-				.expectError(ResponseStatusException.class)
+				.expectError(DomainException.class)
 				.verify();
 	}
 
+	@Test
+	@DisplayName("findById returns the anime when the first attempt hits a serialization failure")
+	public void findById_ReturnMonoAnime_WhenFirstAttemptFailsTransiently() {
+		FaultInjector faults = new FaultInjector().fail("40001").succeed();
+		BDDMockito.when(animeRepositoryMock.findById(ArgumentMatchers.anyInt()))
+				.thenReturn(faults.mono(anime));
+
+		StepVerifier.create(animeService.findById(1))
+				.expectSubscription()
+				.expectNext(anime)
+				.verifyComplete();
+
+		Assertions.assertEquals(2, faults.subscriptions());
+	}
+
 	@Test
 	@DisplayName("save creates anime when successful")
 	public void save_CreatesAnime_WhenSuccessful() {
@@ -135,6 +166,44 @@ public class AnimeServiceTest {
 				.verifyComplete();
 	}
 
+	@Test
+	@DisplayName("saveAll publishes the created animes only after the transaction commits")
+	public void saveAll_PublishesCreatedEvents_AfterCommit() {
+		Anime animeToBeSaved = AnimeCreator.createAnimeToBeSaved();
+		AbstractReactiveTransactionManager transactionManager = new AbstractReactiveTransactionManager() {
+			@Override
+			protected Object doGetTransaction(TransactionSynchronizationManager synchronizationManager) {
+				return new Object();
+			}
+
+			@Override
+			protected Mono<Void> doBegin(TransactionSynchronizationManager synchronizationManager,
+					Object transaction, TransactionDefinition definition) {
+				return Mono.empty();
+			}
+
+			@Override
+			protected Mono<Void> doCommit(TransactionSynchronizationManager synchronizationManager,
+					GenericReactiveTransaction status) {
+				return Mono.fromRunnable(() -> Mockito.verifyNoInteractions(animeChangeFeedMock));
+			}
+
+			@Override
+			protected Mono<Void> doRollback(TransactionSynchronizationManager synchronizationManager,
+					GenericReactiveTransaction status) {
+				return Mono.empty();
+			}
+		};
+
+		StepVerifier.create(TransactionalOperator.create(transactionManager)
+						.transactional(animeService.saveAll(List.of(animeToBeSaved, animeToBeSaved))))
+				.expectSubscription()
+				.expectNext(anime, anime)
+				.verifyComplete();
+
+		Mockito.verify(animeChangeFeedMock, Mockito.times(2)).publish(AnimeChangeEvent.Type.CREATED, anime);
+	}
+
 	@Test
 	@DisplayName("saveAll returns Mono error when one of the objects in the list contains null or empty name")
 	public void saveAll_ReturnsMonoError_WhenContainsInvalidName() {
@@ -147,7 +216,23 @@ public class AnimeServiceTest {
 		StepVerifier.create(animeService.saveAll(List.of(animeToBeSaved, animeToBeSaved.withName(""))))
 				.expectSubscription()
 				.expectNext(anime)
-				.expectError(ResponseStatusException.class)
+				.expectError(DomainException.class)
+				.verify();
+	}
+
+	@Test
+	@DisplayName("saveAll returns a DomainException with a stack trace when the name is empty and trace is requested")
+	public void saveAll_ReturnsTracedError_WhenContainsInvalidNameAndTraceIsRequested() {
+		BDDMockito.when(animeRepositoryMock
+				.saveAll(ArgumentMatchers.anyIterable()))
+				.thenReturn(Flux.just(anime.withName("")));
+
+		StepVerifier.create(animeService.saveAll(List.of(anime.withName("")))
+						.contextWrite(context -> context.put(ErrorTraceWebFilter.TRACE_CONTEXT_KEY, true)))
+				.expectSubscription()
+				.expectErrorMatches(error -> error instanceof DomainException
+						&& error != DomainException.EMPTY_NAME
+						&& error.getStackTrace().length > 0)
 				.verify();
 	}
 
@@ -167,7 +252,7 @@ public class AnimeServiceTest {
 
 		StepVerifier.create(animeService.delete(2))
 				.expectSubscription()
-				.expectError(ResponseStatusException.class)
+				.expectError(DomainException.class)
 				.verify();
 	}
 
@@ -187,7 +272,7 @@ public class AnimeServiceTest {
 
 		StepVerifier.create(animeService.update(AnimeCreator.createValidAnime()))
 				.expectSubscription()
-				.expectError(ResponseStatusException.class)
+				.expectError(DomainException.class)
 				.verify();
 	}
 }
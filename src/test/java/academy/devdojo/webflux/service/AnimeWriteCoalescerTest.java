@@ -0,0 +1,156 @@
+package academy.devdojo.webflux.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import academy.devdojo.webflux.config.AnimeWriteCoalescerProperties;
+import academy.devdojo.webflux.domain.Anime;
+import academy.devdojo.webflux.util.AnimeCreator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+public class AnimeWriteCoalescerTest {
+
+	private final AtomicInteger ids = new AtomicInteger();
+	private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private AnimeWriteCoalescer animeWriteCoalescer;
+
+	@BeforeEach
+	public void setUp() {
+		AnimeWriteCoalescerProperties properties = new AnimeWriteCoalescerProperties();
+		properties.setEnabled(true);
+		properties.setMaxBatchSize(3);
+		properties.setMaxDelay(Duration.ofMillis(50));
+
+		animeWriteCoalescer = new AnimeWriteCoalescer(this::fakeBatchInsert, properties, meterRegistry);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		animeWriteCoalescer.destroy();
+	}
+
+	private Flux<AnimeWriteCoalescer.Inserted> fakeBatchInsert(List<Anime> animes) {
+		batchSizes.add(animes.size());
+		if (animes.stream().anyMatch(anime -> anime.getName().isEmpty())) {
+			return Flux.error(new IllegalArgumentException("empty name"));
+		}
+		// Rows come back in reverse, as PostgreSQL is free to return them in any order.
+		return Flux.range(0, animes.size())
+				.map(i -> animes.size() - 1 - i)
+				.map(i -> new AnimeWriteCoalescer.Inserted(i, animes.get(i).withId(ids.incrementAndGet())));
+	}
+
+	@Test
+	@DisplayName("insert writes concurrent inserts as one batch and returns each its own id")
+	public void insert_WritesOneBatch_WhenInsertsAreConcurrent() {
+		Anime animeToBeSaved = AnimeCreator.createAnimeToBeSaved();
+
+		StepVerifier.create(Flux.merge(
+				animeWriteCoalescer.insert(animeToBeSaved.withName("A")),
+				animeWriteCoalescer.insert(animeToBeSaved.withName("B")),
+				animeWriteCoalescer.insert(animeToBeSaved.withName("C")))
+				.map(Anime::getId)
+				.collectList())
+				.expectSubscription()
+				.assertNext(savedIds -> Assertions.assertEquals(3, savedIds.stream().distinct().count()))
+				.verifyComplete();
+
+		Assertions.assertEquals(List.of(3), batchSizes);
+		Assertions.assertEquals(1, meterRegistry.get("anime.write.coalescer.batch.size").summary().count());
+	}
+
+	@Test
+	@DisplayName("insert returns each caller the row of its own anime when rows come back out of order")
+	public void insert_MatchesRowsByOrdinal_WhenRowsAreReordered() {
+		Anime animeToBeSaved = AnimeCreator.createAnimeToBeSaved();
+
+		StepVerifier.create(Flux.merge(
+				animeWriteCoalescer.insert(animeToBeSaved.withName("A")).map(Anime::getName).map("A"::equals),
+				animeWriteCoalescer.insert(animeToBeSaved.withName("B")).map(Anime::getName).map("B"::equals),
+				animeWriteCoalescer.insert(animeToBeSaved.withName("C")).map(Anime::getName).map("C"::equals))
+				.all(matched -> matched))
+				.expectNext(true)
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("insert keeps flushing when batches time out while every flush slot is busy")
+	public void insert_KeepsFlushing_WhenFlushesAreSaturated() {
+		AnimeWriteCoalescerProperties properties = new AnimeWriteCoalescerProperties();
+		properties.setEnabled(true);
+		properties.setMaxBatchSize(2);
+		properties.setMaxDelay(Duration.ofMillis(1));
+		properties.setMaxConcurrentFlushes(1);
+		AnimeWriteCoalescer slowCoalescer = new AnimeWriteCoalescer(
+				animes -> fakeBatchInsert(animes).delaySubscription(Duration.ofMillis(20)), properties, meterRegistry);
+
+		try {
+			StepVerifier.create(Flux.range(0, 20)
+					.delayElements(Duration.ofMillis(2))
+					.flatMap(i -> slowCoalescer.insert(AnimeCreator.createAnimeToBeSaved()))
+					.count())
+					.expectNext(20L)
+					.verifyComplete();
+		} finally {
+			slowCoalescer.destroy();
+		}
+	}
+
+	@Test
+	@DisplayName("insert only fails the invalid insert when its batch fails")
+	public void insert_IsolatesFailure_WhenOneInsertInBatchFails() {
+		Anime animeToBeSaved = AnimeCreator.createAnimeToBeSaved();
+
+		StepVerifier.create(Flux.mergeDelayError(2,
+				animeWriteCoalescer.insert(animeToBeSaved),
+				animeWriteCoalescer.insert(animeToBeSaved.withName(""))))
+				.expectSubscription()
+				.assertNext(saved -> Assertions.assertEquals("Dragon Ball", saved.getName()))
+				.expectError(IllegalArgumentException.class)
+				.verify(Duration.ofSeconds(5));
+
+		Assertions.assertEquals(1, meterRegistry.get("anime.write.coalescer.fallbacks").counter().count());
+	}
+
+	@Test
+	@DisplayName("insert answers every caller when many threads insert at the same time")
+	public void insert_AnswersEveryInsert_WhenThreadsInsertConcurrently() {
+		StepVerifier.create(Flux.range(0, 500)
+				.parallel()
+				.runOn(Schedulers.parallel())
+				.flatMap(i -> animeWriteCoalescer.insert(AnimeCreator.createAnimeToBeSaved()))
+				.sequential()
+				.map(Anime::getId)
+				.distinct()
+				.count())
+				.expectNext(500L)
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("insert fails at once with 503 when the coalescer has been stopped")
+	public void insert_ReturnsServiceUnavailable_WhenCoalescerIsStopped() {
+		animeWriteCoalescer.destroy();
+
+		StepVerifier.create(animeWriteCoalescer.insert(AnimeCreator.createAnimeToBeSaved()))
+				.expectErrorMatches(error -> error instanceof ResponseStatusException ex
+						&& ex.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE)
+				.verify(Duration.ofSeconds(1));
+	}
+}
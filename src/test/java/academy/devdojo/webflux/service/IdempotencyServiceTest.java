@@ -0,0 +1,117 @@
+package academy.devdojo.webflux.service;
+
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import academy.devdojo.webflux.config.IdempotencyProperties;
+import academy.devdojo.webflux.domain.Anime;
+import academy.devdojo.webflux.repository.InMemoryIdempotencyStore;
+import academy.devdojo.webflux.util.AnimeCreator;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+public class IdempotencyServiceTest {
+
+	private static final TypeReference<Anime> ANIME = new TypeReference<>() {
+	};
+
+	private final Anime anime = AnimeCreator.createValidAnime();
+	private final AtomicInteger executions = new AtomicInteger();
+
+	private IdempotencyService idempotencyService;
+
+	@BeforeEach
+	public void setUp() {
+		IdempotencyProperties properties = new IdempotencyProperties();
+		idempotencyService = new IdempotencyService(
+				new InMemoryIdempotencyStore(properties.getMaxEntries(), Clock.systemUTC()),
+				properties, new ObjectMapper());
+	}
+
+	private Mono<Anime> save() {
+		return Mono.fromSupplier(() -> {
+			executions.incrementAndGet();
+			return anime;
+		});
+	}
+
+	@Test
+	@DisplayName("execute runs the action every time when no Idempotency-Key is sent")
+	public void execute_RunsAction_WhenKeyIsMissing() {
+		StepVerifier.create(Flux.concat(
+				idempotencyService.execute(null, "POST /animes", anime, ANIME, save()),
+				idempotencyService.execute(null, "POST /animes", anime, ANIME, save())))
+				.expectNext(anime, anime)
+				.verifyComplete();
+
+		Assertions.assertEquals(2, executions.get());
+	}
+
+	@Test
+	@DisplayName("execute replays the stored response when the same Idempotency-Key is retried")
+	public void execute_ReplaysResponse_WhenKeyIsRetried() {
+		StepVerifier.create(Flux.concat(
+				idempotencyService.execute("key-1", "POST /animes", anime, ANIME, save()),
+				idempotencyService.execute("key-1", "POST /animes", anime, ANIME, save())))
+				.expectNext(anime, anime)
+				.verifyComplete();
+
+		Assertions.assertEquals(1, executions.get());
+	}
+
+	@Test
+	@DisplayName("execute runs the action again for a different Idempotency-Key")
+	public void execute_RunsAction_WhenKeyIsDifferent() {
+		StepVerifier.create(Flux.concat(
+				idempotencyService.execute("key-1", "POST /animes", anime, ANIME, save()),
+				idempotencyService.execute("key-2", "POST /animes", anime, ANIME, save())))
+				.expectNext(anime, anime)
+				.verifyComplete();
+
+		Assertions.assertEquals(2, executions.get());
+	}
+
+	@Test
+	@DisplayName("execute lets a retry run again when the original request failed")
+	public void execute_RunsActionAgain_WhenOriginalFailed() {
+		StepVerifier.create(idempotencyService.execute("key-1", "POST /animes", anime, ANIME,
+				Mono.error(new IllegalStateException("database down"))))
+				.expectError(IllegalStateException.class)
+				.verify();
+
+		StepVerifier.create(idempotencyService.execute("key-1", "POST /animes", anime, ANIME, save()))
+				.expectNext(anime)
+				.verifyComplete();
+
+		Assertions.assertEquals(1, executions.get());
+	}
+
+	@Test
+	@DisplayName("execute returns 422 when an Idempotency-Key is reused with a different request body")
+	public void execute_ReturnsUnprocessableEntity_WhenKeyIsReusedWithDifferentBody() {
+		StepVerifier.create(idempotencyService.execute("key-1", "POST /animes", anime, ANIME, save()))
+				.expectNext(anime)
+				.verifyComplete();
+
+		StepVerifier.create(idempotencyService.execute("key-1", "POST /animes", anime.withName("Other"), ANIME,
+						save()))
+				.expectErrorMatches(error -> error instanceof ResponseStatusException e
+						&& e.getStatusCode() == HttpStatus.UNPROCESSABLE_ENTITY)
+				.verify();
+
+		Assertions.assertEquals(1, executions.get());
+	}
+}
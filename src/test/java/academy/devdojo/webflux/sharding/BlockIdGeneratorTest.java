@@ -0,0 +1,61 @@
+package academy.devdojo.webflux.sharding;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+public class BlockIdGeneratorTest {
+
+	private final AtomicLong sequence = new AtomicLong();
+
+	@Test
+	@DisplayName("nextId hands out the ids of one block before fetching the next")
+	public void nextId_UsesBlocksInOrder() {
+		BlockIdGenerator generator = new BlockIdGenerator(() -> Mono.fromSupplier(sequence::incrementAndGet), 3);
+
+		StepVerifier.create(Flux.range(0, 5).concatMap(i -> generator.nextId()))
+				.expectNext(4, 5, 6, 7, 8)
+				.verifyComplete();
+		Assertions.assertEquals(2, sequence.get());
+	}
+
+	@Test
+	@DisplayName("nextId returns unique ids and fetches one block at a time under concurrent callers")
+	public void nextId_ReturnsUniqueIds_WhenCalledConcurrently() {
+		BlockIdGenerator generator = new BlockIdGenerator(() -> Mono.fromSupplier(sequence::incrementAndGet)
+				.delayElement(Duration.ofMillis(5)), 10);
+
+		List<Integer> ids = Flux.range(0, 1_000)
+				.flatMap(i -> generator.nextId().subscribeOn(Schedulers.parallel()), 64)
+				.collectList()
+				.block(Duration.ofSeconds(10));
+
+		Assertions.assertEquals(1_000, ids.stream().distinct().count());
+		Assertions.assertEquals(100, sequence.get());
+	}
+
+	@Test
+	@DisplayName("nextId propagates a failed block fetch and fetches again on the next call")
+	public void nextId_RetriesFetch_AfterFailure() {
+		AtomicLong attempts = new AtomicLong();
+		BlockIdGenerator generator = new BlockIdGenerator(() -> attempts.incrementAndGet() == 1
+				? Mono.error(new IllegalStateException("sequence unavailable"))
+				: Mono.just(0L), 10);
+
+		StepVerifier.create(generator.nextId())
+				.expectError(IllegalStateException.class)
+				.verify();
+		StepVerifier.create(generator.nextId())
+				.expectNext(1)
+				.verifyComplete();
+	}
+}
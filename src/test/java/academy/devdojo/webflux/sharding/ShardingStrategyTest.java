@@ -0,0 +1,51 @@
+package academy.devdojo.webflux.sharding;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ShardingStrategyTest {
+
+	@Test
+	@DisplayName("hash strategy spreads a run of consecutive ids evenly over the shards")
+	public void hash_SpreadsConsecutiveIdsEvenly() {
+		HashShardingStrategy strategy = new HashShardingStrategy(3);
+		int[] counts = new int[3];
+		for (int id = 1; id <= 30_000; id++) {
+			counts[strategy.shardFor(id)]++;
+		}
+
+		for (int count : counts) {
+			Assertions.assertTrue(Math.abs(count - 10_000) < 500, "uneven spread: " + count);
+		}
+	}
+
+	@Test
+	@DisplayName("hash strategy always maps an id to the same shard")
+	public void hash_IsStable() {
+		Assertions.assertEquals(new HashShardingStrategy(4).shardFor(42), new HashShardingStrategy(4).shardFor(42));
+	}
+
+	@Test
+	@DisplayName("range strategy maps ids to the shard owning their range, bounds belonging to the next one")
+	public void range_MapsIdsToOwningShard() {
+		RangeShardingStrategy strategy = new RangeShardingStrategy(List.of(100, 200), 3);
+
+		Assertions.assertEquals(0, strategy.shardFor(1));
+		Assertions.assertEquals(0, strategy.shardFor(99));
+		Assertions.assertEquals(1, strategy.shardFor(100));
+		Assertions.assertEquals(1, strategy.shardFor(199));
+		Assertions.assertEquals(2, strategy.shardFor(200));
+		Assertions.assertEquals(2, strategy.shardFor(Integer.MAX_VALUE));
+	}
+
+	@Test
+	@DisplayName("range strategy rejects bounds that do not match the shards or are not increasing")
+	public void range_RejectsInvalidBounds() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new RangeShardingStrategy(List.of(100), 3));
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> new RangeShardingStrategy(List.of(200, 100), 3));
+	}
+}
@@ -0,0 +1,20 @@
+package academy.devdojo.webflux.util;
+
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+
+import reactor.blockhound.BlockHound;
+
+/**
+ * Installs BlockHound once, when the JUnit launcher session opens and before any test class is
+ * loaded, while no Reactor scheduler threads are parked yet; threads parked inside code
+ * BlockHound instruments die when they wake up. Registered through {@code META-INF/services}.
+ * Allowances go in {@link BlockHoundTestIntegration}.
+ */
+public class BlockHoundLauncherSessionListener implements LauncherSessionListener {
+
+    @Override
+    public void launcherSessionOpened(LauncherSession session) {
+        BlockHound.install();
+    }
+}
@@ -0,0 +1,16 @@
+package academy.devdojo.webflux.util;
+
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.integration.BlockHoundIntegration;
+
+/**
+ * Blocking calls the tests tolerate, picked up through {@code META-INF/services} when
+ * {@link BlockHoundLauncherSessionListener} calls {@link BlockHound#install}.
+ */
+public class BlockHoundTestIntegration implements BlockHoundIntegration {
+
+    @Override
+    public void applyTo(BlockHound.Builder builder) {
+        builder.allowBlockingCallsInside("java.util.UUID", "randomUUID");
+    }
+}
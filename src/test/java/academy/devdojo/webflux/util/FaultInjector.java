@@ -0,0 +1,85 @@
+package academy.devdojo.webflux.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.dao.TransientDataAccessResourceException;
+
+import io.r2dbc.spi.R2dbcTransientResourceException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Stands in for a repository query that answers slowly or fails, one scripted step per
+ * subscription; the last step repeats once the script runs out. Failures look like the ones
+ * Spring Data R2DBC raises: a translated exception around an {@link io.r2dbc.spi.R2dbcException}
+ * carrying the SQLSTATE.
+ *
+ * <pre>
+ * BDDMockito.when(animeRepositoryMock.findById(1))
+ *         .thenReturn(new FaultInjector().fail("40001").succeed().mono(anime));
+ * </pre>
+ */
+public class FaultInjector {
+
+    private final List<Step> steps = new ArrayList<>();
+    private final AtomicInteger subscriptions = new AtomicInteger();
+
+    public FaultInjector succeed() {
+        return delay(Duration.ZERO);
+    }
+
+    public FaultInjector delay(Duration latency) {
+        steps.add(new Step(latency, null));
+        return this;
+    }
+
+    public FaultInjector fail(String sqlState) {
+        return delayThenFail(Duration.ZERO, sqlState);
+    }
+
+    public FaultInjector delayThenFail(Duration latency, String sqlState) {
+        steps.add(new Step(latency, sqlState));
+        return this;
+    }
+
+    public int subscriptions() {
+        return subscriptions.get();
+    }
+
+    public <T> Mono<T> mono(T value) {
+        return Mono.defer(() -> {
+            Step step = nextStep();
+            Mono<T> result = step.sqlState == null ? Mono.justOrEmpty(value) : Mono.error(step.failure());
+            return step.latency.isZero() ? result : Mono.delay(step.latency).then(result);
+        });
+    }
+
+    /**
+     * Emits {@code values}, failing after the first one when the step is a failure.
+     */
+    @SafeVarargs
+    public final <T> Flux<T> flux(T... values) {
+        return Flux.defer(() -> {
+            Step step = nextStep();
+            Flux<T> result = step.sqlState == null ? Flux.just(values)
+                    : Flux.just(values).take(1).concatWith(Mono.error(step.failure()));
+            return step.latency.isZero() ? result : Mono.delay(step.latency).thenMany(result);
+        });
+    }
+
+    private Step nextStep() {
+        int index = subscriptions.getAndIncrement();
+        return steps.isEmpty() ? new Step(Duration.ZERO, null) : steps.get(Math.min(index, steps.size() - 1));
+    }
+
+    private record Step(Duration latency, String sqlState) {
+
+        private RuntimeException failure() {
+            return new TransientDataAccessResourceException("Injected fault " + sqlState,
+                    new R2dbcTransientResourceException("Injected fault", sqlState));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package academy.devdojo.webflux.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.R2dbcType;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Type;
+
+/**
+ * In-memory R2DBC {@link Row}, for exercising row mapping without a database.
+ *
+ * <pre>
+ * Row row = MapRow.of("id", 1, "name", "Dragon Ball");
+ * </pre>
+ */
+public class MapRow implements Row, RowMetadata {
+
+    private final List<String> names;
+    private final List<Object> values;
+    private final List<ColumnMetadata> columns;
+
+    private MapRow(Map<String, Object> columns) {
+        this.names = new ArrayList<>(columns.keySet());
+        this.values = new ArrayList<>(columns.values());
+        this.columns = names.stream().<ColumnMetadata>map(Column::new).toList();
+    }
+
+    public static MapRow of(Object... namesAndValues) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            columns.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return new MapRow(columns);
+    }
+
+    @Override
+    public RowMetadata getMetadata() {
+        return this;
+    }
+
+    @Override
+    public <T> T get(int index, Class<T> type) {
+        return type.cast(values.get(index));
+    }
+
+    @Override
+    public <T> T get(String name, Class<T> type) {
+        return get(indexOf(name), type);
+    }
+
+    @Override
+    public ColumnMetadata getColumnMetadata(int index) {
+        return columns.get(index);
+    }
+
+    @Override
+    public ColumnMetadata getColumnMetadata(String name) {
+        return columns.get(indexOf(name));
+    }
+
+    @Override
+    public List<? extends ColumnMetadata> getColumnMetadatas() {
+        return columns;
+    }
+
+    @Override
+    public boolean contains(String name) {
+        return names.stream().anyMatch(name::equalsIgnoreCase);
+    }
+
+    private int indexOf(String name) {
+        for (int i = 0; i < names.size(); i++) {
+            if (names.get(i).equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        throw new NoSuchElementException("No column " + name);
+    }
+
+    private record Column(String getName) implements ColumnMetadata {
+
+        @Override
+        public Type getType() {
+            return R2dbcType.VARCHAR;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package academy.devdojo.webflux.warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.reactive.config.EnableWebFlux;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import academy.devdojo.webflux.config.CodecConfig;
+import academy.devdojo.webflux.config.WarmupProperties;
+import reactor.test.StepVerifier;
+
+public class StartupWarmupTest {
+
+	private static final List<String> calls = new CopyOnWriteArrayList<>();
+
+	private final WarmupProperties properties = new WarmupProperties();
+	private AnnotationConfigApplicationContext applicationContext;
+	private StartupWarmup startupWarmup;
+
+	@BeforeEach
+	public void setUp() {
+		calls.clear();
+		applicationContext = new AnnotationConfigApplicationContext(RoutesConfig.class);
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerSingleton("jacksonObjectMapperBuilder", Jackson2ObjectMapperBuilder.json());
+		ServerCodecConfigurer codecConfigurer = ServerCodecConfigurer.create();
+		new CodecConfig().binaryCodecCustomizer(new ObjectMapper(),
+				beanFactory.getBeanProvider(Jackson2ObjectMapperBuilder.class)).customize(codecConfigurer);
+		properties.setIterations(2);
+		properties.setTimeout(Duration.ofSeconds(2));
+		properties.setAnimeId(7);
+		startupWarmup = new StartupWarmup(properties, codecConfigurer, applicationContext);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		applicationContext.close();
+	}
+
+	@Test
+	@DisplayName("warmCodecs round-trips animes and error bodies through the JSON, Smile and CBOR codecs")
+	public void warmCodecs_Completes_WhenCodecsAreRegistered() {
+		StepVerifier.create(startupWarmup.warmCodecs())
+				.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("warmRoutes calls the configured anime in-process, anonymously and as a mock user")
+	public void warmRoutes_CallsTheAnimeRoute_AnonymouslyAndAsUser() {
+		StepVerifier.create(startupWarmup.warmRoutes())
+				.verifyComplete();
+
+		Assertions.assertThat(calls)
+				.hasSize(4)
+				.containsOnly("/animes/7 anonymous", "/animes/7 warmup");
+	}
+
+	@Test
+	@DisplayName("warmRoutes ignores failed requests so startup is never held back")
+	public void warmRoutes_Completes_WhenRequestsFail() {
+		properties.setAnimeId(-1);
+
+		StepVerifier.create(startupWarmup.warmRoutes())
+				.verifyComplete();
+
+		Assertions.assertThat(calls).hasSize(4);
+	}
+
+	@Test
+	@DisplayName("afterSingletonsInstantiated returns once the timeout elapses even when the warmup is not done")
+	public void afterSingletonsInstantiated_Returns_WhenWarmupTimesOut() {
+		properties.setIterations(1_000_000);
+		properties.setTimeout(Duration.ofMillis(50));
+
+		startupWarmup.afterSingletonsInstantiated();
+	}
+
+	@Configuration
+	@EnableWebFlux
+	static class RoutesConfig {
+
+		@Bean
+		RouterFunction<ServerResponse> animeRoute() {
+			return RouterFunctions.route()
+					.GET("/animes/{id}", request -> ReactiveSecurityContextHolder.getContext()
+							.map(context -> context.getAuthentication().getName())
+							.defaultIfEmpty("anonymous")
+							.doOnNext(caller -> calls.add(request.path() + " " + caller))
+							.flatMap(caller -> "-1".equals(request.pathVariable("id"))
+									? ServerResponse.status(500).build()
+									: ServerResponse.notFound().build()))
+					.build();
+		}
+	}
+}